@@ -25,7 +25,9 @@ const AddMedication = () => {
     try {
       const res = await api.get('/api/drugs/search', { params: { name: query } });
       setResults(res.data || []);
-      if (!res.data || res.data.length === 0) {
+      if (res.headers['x-drug-search-degraded'] === 'unavailable') {
+        setError('The drug database is temporarily unavailable. Please try again in a few minutes.');
+      } else if (!res.data || res.data.length === 0) {
         setError('No drugs found. Try searching by generic name (e.g., "atorvastatin" instead of "Lipitor").');
       }
     } catch (err) {
@@ -22,12 +22,19 @@ const buildName = (drug, brandNames) => {
   );
 };
 
+// Served one at a time by /api/drugs/{rxcui}/sections/{name}
+const SECTION_NAMES = ['indications', 'warnings', 'side-effects', 'dosage'];
+
 const DrugLibrary = () => {
   const [query, setQuery] = useState('');
   const [results, setResults] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
+  const [notice, setNotice] = useState('');
+  const [corrections, setCorrections] = useState([]);
   const [openId, setOpenId] = useState(null);
+  // Label sections by rxcui, fetched the first time a drug's details are opened
+  const [sections, setSections] = useState({});
 
   const dedupeAndFilter = (items, term) => {
     const seen = new Set();
@@ -53,19 +60,56 @@ const DrugLibrary = () => {
       .sort((a, b) => a.primaryName.localeCompare(b.primaryName));
   };
 
-  const search = async (e) => {
+  const toggleDetails = async (id, rxcui) => {
+    if (openId === id) {
+      setOpenId(null);
+      return;
+    }
+    setOpenId(id);
+    if (!rxcui || sections[rxcui]) return;
+    setSections((prev) => ({ ...prev, [rxcui]: { loading: true } }));
+    // A label may lack some sections, those answer 404 and are left out
+    const loaded = await Promise.all(
+      SECTION_NAMES.map((name) =>
+        api
+          .get(`/api/drugs/${rxcui}/sections/${name}`)
+          .then((res) => [name, res.data.text])
+          .catch(() => [name, null])
+      )
+    );
+    setSections((prev) => ({ ...prev, [rxcui]: Object.fromEntries(loaded) }));
+  };
+
+  const search = (e) => {
     e.preventDefault();
-    if (!query.trim()) return;
+    runSearch(query);
+  };
+
+  const runSearch = async (term) => {
+    if (!term.trim()) return;
     setLoading(true);
     setError('');
+    setNotice('');
+    setCorrections([]);
     setResults([]);
     try {
-      const res = await api.get('/api/drugs/search', { params: { name: query } });
+      const res = await api.get('/api/drugs/search', { params: { name: term } });
       setOpenId(null);
-      const filtered = dedupeAndFilter(res.data, query);
+      const filtered = dedupeAndFilter(res.data, term);
       setResults(filtered);
-      if (filtered.length === 0) {
+      // Set by the backend when the drug database is unreachable
+      const degraded = res.headers['x-drug-search-degraded'];
+      if (degraded === 'unavailable') {
+        setError('The drug database is temporarily unavailable. Please try again in a few minutes.');
+      } else if (filtered.length === 0) {
         setError('No drugs found. Try searching by generic name (e.g., "atorvastatin" instead of "Lipitor").');
+        // Likely a typo, offer close known names (answered locally by the backend)
+        const suggestions = await api
+          .get('/api/drugs/did-you-mean', { params: { name: term } })
+          .catch(() => ({ data: [] }));
+        setCorrections(suggestions.data || []);
+      } else if (degraded === 'stale') {
+        setNotice('The drug database is temporarily unavailable, showing previously saved information.');
       }
     } catch (err) {
       const message = err?.response?.data || err?.message || 'Search failed.';
@@ -123,6 +167,28 @@ const DrugLibrary = () => {
       </form>
 
       {error && <p className="mt-3 text-sm text-red-600">{error}</p>}
+      {notice && <p className="mt-3 text-sm text-amber-700">{notice}</p>}
+      {corrections.length > 0 && (
+        <p className="mt-2 text-sm text-slate-600">
+          Did you mean{' '}
+          {corrections.map((name, idx) => (
+            <span key={name}>
+              {idx > 0 && ', '}
+              <button
+                type="button"
+                onClick={() => {
+                  setQuery(name);
+                  runSearch(name);
+                }}
+                className="font-medium text-slate-900 underline hover:text-slate-700"
+              >
+                {name}
+              </button>
+            </span>
+          ))}
+          ?
+        </p>
+      )}
 
       <div className="mt-6 space-y-4">
         {results.length === 0 && !loading && (
@@ -135,6 +201,7 @@ const DrugLibrary = () => {
           const brandNames = drug.brandNames || toList(drug.brandNames || drug.brandName);
           const genericNames = toList(drug.genericName || drug.genericNames || drug.generic);
           const purpose = drug.purpose || drug.summary || drug.description;
+          const details = (drug.rxcui && sections[drug.rxcui]) || {};
           return (
             <div key={id} className="rounded-lg border border-slate-200 bg-white p-4 shadow-sm">
               <div className="flex items-start justify-between gap-3">
@@ -150,7 +217,7 @@ const DrugLibrary = () => {
                 </div>
                 <button
                   type="button"
-                  onClick={() => setOpenId(isOpen ? null : id)}
+                  onClick={() => toggleDetails(id, drug.rxcui)}
                   className="rounded border border-slate-200 px-3 py-1 text-xs font-medium text-slate-700 hover:border-slate-300"
                 >
                   {isOpen ? 'Hide details' : 'View details'}
@@ -160,10 +227,11 @@ const DrugLibrary = () => {
               {isOpen && (
                 <div className="mt-4 space-y-4 border-t border-slate-200 pt-4">
                   {renderText('Purpose', purpose)}
-                  {renderList('Indications', drug.indications || drug.uses)}
-                  {renderList('Warnings', drug.warnings)}
-                  {renderList('Side Effects', drug.sideEffects)}
-                  {renderList('Dosage Forms', drug.dosageForms || drug.formulations)}
+                  {details.loading && <p className="text-sm text-slate-500">Loading details...</p>}
+                  {renderList('Indications', details.indications)}
+                  {renderList('Warnings', details.warnings)}
+                  {renderList('Side Effects', details['side-effects'])}
+                  {renderList('Dosage', details.dosage)}
                   {renderList('Other Info', drug.notes || drug.description)}
                 </div>
               )}
@@ -102,9 +102,15 @@ const EditMedication = () => {
           startDate: form.startDate,
           instructions: form.instructions,
         },
+        // rejected with 412 if the medication changed since it was loaded
+        med?.version != null ? { headers: { 'If-Match': `"${med.version}"` } } : undefined,
       );
       navigate('/medications');
     } catch (err) {
+      if (err?.response?.status === 412) {
+        setError('This medication was changed elsewhere. Reload the page to see the latest version.');
+        return;
+      }
       const message = err?.response?.data || 'Update failed.';
       setError(typeof message === 'string' ? message : 'Update failed.');
     } finally {
@@ -2,18 +2,38 @@ import { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import api from '../services/api';
 
+const PAGE_SIZE = 50;
+
 const MedicationList = () => {
   const [medications, setMedications] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [notesModal, setNotesModal] = useState({ open: false, content: '' });
+  const [interactions, setInteractions] = useState({ interactions: [], duplicates: [] });
+
+  // Interaction warnings are a best-effort extra, the list still works without them
+  const fetchInteractions = async () => {
+    try {
+      const res = await api.get('/user-medications/me/interactions');
+      setInteractions(res.data || { interactions: [], duplicates: [] });
+    } catch (err) {
+      setInteractions({ interactions: [], duplicates: [] });
+    }
+  };
+
+  // Medications come a page at a time, oldest first
+  const fetchPage = (cursor) =>
+    api.get('/user-medications/me/page', { params: { limit: PAGE_SIZE, cursor: cursor || undefined } });
 
   const fetchMedications = async () => {
     setLoading(true);
     setError('');
     try {
-      const res = await api.get('/user-medications/me');
-      setMedications(res.data || []);
+      const res = await fetchPage(null);
+      setMedications(res.data?.items || []);
+      setNextCursor(res.data?.nextCursor || null);
     } catch (err) {
       const message = err?.response?.data || 'Could not load medications.';
       setError(typeof message === 'string' ? message : 'Could not load medications.');
@@ -22,14 +42,30 @@ const MedicationList = () => {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const res = await fetchPage(nextCursor);
+      setMedications((prev) => [...prev, ...(res.data?.items || [])]);
+      setNextCursor(res.data?.nextCursor || null);
+    } catch (err) {
+      const message = err?.response?.data || 'Could not load medications.';
+      setError(typeof message === 'string' ? message : 'Could not load medications.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchMedications();
+    fetchInteractions();
   }, []);
 
   const handleDelete = async (id) => {
     try {
       await api.delete(`/user-medications/${id}`);
       setMedications((prev) => prev.filter((med) => med.id !== id));
+      fetchInteractions();
     } catch (err) {
       const message = err?.response?.data || 'Delete failed.';
       setError(typeof message === 'string' ? message : 'Delete failed.');
@@ -71,6 +107,27 @@ const MedicationList = () => {
 
       {error && <p className="mb-4 text-sm text-red-600">{error}</p>}
 
+      {(interactions.interactions.length > 0 || interactions.duplicates.length > 0) && (
+        <div className="mb-4 rounded-lg border border-amber-200 bg-amber-50 p-4 text-sm">
+          <p className="font-semibold text-amber-900">Possible interactions</p>
+          <ul className="mt-2 space-y-1 text-amber-900">
+            {interactions.interactions.map((item, idx) => (
+              <li key={`interaction-${idx}`}>
+                <span className="font-medium uppercase">{item.severity}</span>: {item.drugName} and {item.otherDrugName}
+                {' '}({item.ingredient} + {item.otherIngredient}). {item.description}
+              </li>
+            ))}
+            {interactions.duplicates.map((item, idx) => (
+              <li key={`duplicate-${idx}`}>
+                <span className="font-medium uppercase">Duplicate</span>: {item.drugName} and {item.otherDrugName} both
+                contain {item.ingredient}.
+              </li>
+            ))}
+          </ul>
+          <p className="mt-2 text-xs text-amber-800">Check with your doctor or pharmacist before changing your medications.</p>
+        </div>
+      )}
+
       <div className="overflow-hidden rounded-lg border border-slate-200 bg-white shadow-sm">
         <table className="min-w-full divide-y divide-slate-200 text-sm">
           <thead className="bg-slate-50">
@@ -131,6 +188,18 @@ const MedicationList = () => {
         </table>
       </div>
 
+      {nextCursor && (
+        <div className="mt-4 flex justify-center">
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="rounded border border-slate-200 px-4 py-2 text-sm font-medium text-slate-700 hover:border-slate-300 disabled:opacity-50"
+          >
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
+
       {/* Notes Modal */}
       {notesModal.open && (
         <div className="fixed inset-0 z-50 flex items-center justify-center bg-black bg-opacity-50" onClick={closeNotesModal}>
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import com.meditrack.backend.Model.User;
@@ -22,6 +23,7 @@ import com.meditrack.backend.dto.RegisterRequest;
 import com.meditrack.backend.dto.RefreshTokenRequest;
 import com.meditrack.backend.dto.UserResponse;
 import com.meditrack.backend.dto.MessageResponse;
+import com.meditrack.backend.util.ClientAddress;
 import com.meditrack.backend.util.JwtUtil;
 
 @RestController
@@ -78,11 +80,11 @@ public class AuthController {
 
     // Endpoint for user login
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody LoginRequest request) { // ? indicates any type of response / accepting login request dto
+    public ResponseEntity<?> loginUser(@RequestBody LoginRequest request, HttpServletRequest httpRequest) { // ? indicates any type of response / accepting login request dto
         try {
             log.info("Login attempt for email: {}", request.getEmail());
             // Call the UserService to authenticate and generate token
-            AuthResponse authResponse = userService.loginAndGenerateToken(request.getEmail(), request.getPassword());
+            AuthResponse authResponse = userService.loginAndGenerateToken(request.getEmail(), request.getPassword(), ClientAddress.of(httpRequest));
             return ResponseEntity.ok(authResponse);
         } catch (IllegalArgumentException e) {
             log.error("Login failed for email: {} - {}", request.getEmail(), e.getMessage());
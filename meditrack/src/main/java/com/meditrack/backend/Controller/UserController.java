@@ -3,13 +3,14 @@ package com.meditrack.backend.Controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
 import com.meditrack.backend.Model.User;
 import com.meditrack.backend.Service.UserService;
 import com.meditrack.backend.Service.EmailService;
+import com.meditrack.backend.config.AuthenticatedUser;
 import com.meditrack.backend.dto.ChangePasswordRequest;
 import com.meditrack.backend.dto.UpdateProfileRequest;
 import com.meditrack.backend.dto.UserResponse;
@@ -33,10 +34,9 @@ public class UserController {
 
     // Get current user profile
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile() {
+    public ResponseEntity<?> getProfile(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            User user = userRepository.findByEmail(email)
+            User user = userRepository.findById(principal.getUserId())
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
             
             UserResponse response = new UserResponse(
@@ -55,12 +55,13 @@ public class UserController {
 
     // Update user profile
     @PatchMapping("/profile")
-    public ResponseEntity<?> updateProfile(@Valid @RequestBody UpdateProfileRequest request) {
+    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal AuthenticatedUser principal,
+                                           @Valid @RequestBody UpdateProfileRequest request) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            User user = userRepository.findByEmail(email)
+            User user = userRepository.findById(principal.getUserId())
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
-            
+            String email = user.getEmail();
+
             log.info("Profile update attempt for user: {}", email);
             
             // Check if new email is already taken by another user
@@ -73,7 +74,7 @@ public class UserController {
             // Update user details
             user.setName(request.getName());
             user.setEmail(request.getEmail());
-            User updatedUser = userRepository.save(user);
+            User updatedUser = userService.updateUser(user);
             
             log.info("Profile updated successfully for user: {}", email);
             
@@ -93,15 +94,14 @@ public class UserController {
 
     // Change password
     @PostMapping("/change-password")
-    public ResponseEntity<?> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
+    public ResponseEntity<?> changePassword(@AuthenticationPrincipal AuthenticatedUser principal,
+                                            @Valid @RequestBody ChangePasswordRequest request) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
+            String email = principal.getEmail();
             log.info("Password change attempt for user: {}", email);
             
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-            
-            userService.changePassword(email, request.getCurrentPassword(), request.getNewPassword());
+            // the service loads the user once and hands it back for the confirmation email
+            User user = userService.changePassword(principal.getUserId(), request.getCurrentPassword(), request.getNewPassword());
             
             // Send confirmation email
             emailService.sendPasswordChangeConfirmation(user.getEmail(), user.getName());
@@ -1,51 +1,69 @@
 package com.meditrack.backend.Controller;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PathVariable;
 import com.meditrack.backend.Service.UserMedicationService;
+import com.meditrack.backend.api.service.DrugCacheWarmer;
+import com.meditrack.backend.api.service.DrugInteractionService;
+import com.meditrack.backend.dto.MedicationInteractionReport;
+import com.meditrack.backend.config.AuthenticatedUser;
 import com.meditrack.backend.dto.UserMedicationCreate;
+import com.meditrack.backend.dto.UserMedicationPage;
 import com.meditrack.backend.dto.UserMedicationResponse;
 import com.meditrack.backend.dto.UserMedicationUpdate;
 import com.meditrack.backend.repository.UserRepository;
 import com.meditrack.backend.Model.UserMedication;
-import com.meditrack.backend.Model.User;
+import java.time.LocalDate;
 import java.util.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/user-medications")
 public class UserMedicationController {
 
+    // Clients may keep the list but must revalidate it with If-None-Match before each use
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     // Dependency injection of UserMedicationService and UserRepository
     private final UserMedicationService userMedicationService;
     private final UserRepository userRepository;
+    private final DrugCacheWarmer drugCacheWarmer;
+    private final DrugInteractionService drugInteractionService;
 
     // Constructor for dependency injection
-    public UserMedicationController(UserMedicationService userMedicationService, UserRepository userRepository) {
+    public UserMedicationController(UserMedicationService userMedicationService, UserRepository userRepository,
+                                    DrugCacheWarmer drugCacheWarmer, DrugInteractionService drugInteractionService) {
         this.userMedicationService = userMedicationService;
         this.userRepository = userRepository;
+        this.drugCacheWarmer = drugCacheWarmer;
+        this.drugInteractionService = drugInteractionService;
     }
 
     //get all medication trackers for a specific user by userId (will be a /me endpoint later)
+    //answers 304 from the list version alone when the client's If-None-Match is still current
     @GetMapping("/me")
-    public ResponseEntity<List<UserMedicationResponse>> getMyMedications(){
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication(); // get current auth info
-        String email = auth.getName(); // comes from JWT
-
-        // find user by email
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
-        // fetch medications for that user
-        List<UserMedication> medications = userMedicationService.getMedicationsForUser(user);
+    public ResponseEntity<List<UserMedicationResponse>> getMyMedications(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                                         WebRequest request){
+        String etag = listETag(principal.getUserId());
+        if (request.checkNotModified(etag)) {
+            return null; // 304 already written
+        }
+        // fetch medications for the user id from the JWT, no user lookup needed
+        List<UserMedication> medications = userMedicationService.getByUserId(principal.getUserId());
 
         List<UserMedicationResponse> response = medications.stream()
                 .map(med -> new UserMedicationResponse(
@@ -55,22 +73,56 @@ public class UserMedicationController {
                         med.getDosage(),
                         med.getFrequency(),
                         med.getStartDate(),
-                        med.getInstructions()
+                        med.getInstructions(),
+                        med.getVersion()
                 ))
                 .toList();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(response);
+    }
+
+    //one page of the current user's medications, oldest first, with optional filters
+    //e.g. /me/page?limit=20&drugName=ibu&startedFrom=2024-01-01, then ?cursor=<nextCursor> for the next page
+    @GetMapping("/me/page")
+    public ResponseEntity<?> getMyMedicationPage(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int limit,
+                                                 @RequestParam(required = false) String drugName,
+                                                 @RequestParam(required = false) String rxcui,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startedFrom,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startedTo,
+                                                 WebRequest request) {
+        try {
+            // a bad cursor is rejected even when the list is unchanged
+            userMedicationService.validateCursor(cursor);
+            // every page and filter of an unchanged list is unchanged too
+            String etag = listETag(principal.getUserId());
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            UserMedicationPage page = userMedicationService.getPage(principal.getUserId(), cursor, limit,
+                    drugName, rxcui, startedFrom, startedTo);
+            return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    //interactions and duplicate ingredients across the current user's medications
+    @GetMapping("/me/interactions")
+    public ResponseEntity<MedicationInteractionReport> getMyInteractions(@AuthenticationPrincipal AuthenticatedUser principal) {
+        Long userId = principal.getUserId();
+        // cached per user, only recomputed after the user's medications change
+        MedicationInteractionReport report = drugInteractionService.reportFor(userId,
+                () -> userMedicationService.getByUserId(userId));
+        return ResponseEntity.ok(report);
     }
+
     //create new user medication tracker
     @PostMapping
-    public ResponseEntity<UserMedicationResponse> addUserMedication(@RequestBody UserMedicationCreate dto) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication(); // get current auth info
-        String email = auth.getName();
+    public ResponseEntity<UserMedicationResponse> addUserMedication(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                                    @RequestBody UserMedicationCreate dto) {
 
-        // find user by email
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
         UserMedication userMed = new UserMedication();
         userMed.setDrugName(dto.getDrugName());
         userMed.setRxcui(dto.getRxcui());
@@ -78,10 +130,14 @@ public class UserMedicationController {
         userMed.setFrequency(dto.getFrequency());
         userMed.setStartDate(dto.getStartDate());
         userMed.setInstructions(dto.getInstructions());
-        userMed.setUser(user);
+        // a reference is enough to set the foreign key, the user row is not loaded
+        userMed.setUser(userRepository.getReferenceById(principal.getUserId()));
 
         // save medication linked to user
         UserMedication savedMedication = userMedicationService.save(userMed);
+        drugInteractionService.invalidate(principal.getUserId());
+        // fetch its label in the background so the user's next lookups hit the cache
+        drugCacheWarmer.prefetch(savedMedication.getDrugName(), savedMedication.getRxcui());
         
         UserMedicationResponse response = new UserMedicationResponse(
             savedMedication.getId(),
@@ -90,7 +146,8 @@ public class UserMedicationController {
             savedMedication.getDosage(),
             savedMedication.getFrequency(),
             savedMedication.getStartDate(),
-            savedMedication.getInstructions()
+            savedMedication.getInstructions(),
+            savedMedication.getVersion()
         );      
         return ResponseEntity.status(201).body(response);
     }
@@ -99,20 +156,23 @@ public class UserMedicationController {
     //updates user medication tracker
     @PatchMapping("/{id}")
     //args are id of medication to update and map of fields to update
-    public ResponseEntity<UserMedicationResponse> partiallyUpdateUserMedication(@PathVariable Long id, @RequestBody UserMedicationUpdate dto) {
-        
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication(); // get current auth info
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    //with If-Match set to the version the client last saw, answers 412 instead of overwriting a newer change
+    public ResponseEntity<UserMedicationResponse> partiallyUpdateUserMedication(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                                                @PathVariable Long id, @RequestBody UserMedicationUpdate dto,
+                                                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         UserMedication existing = userMedicationService.getById(id)
             .orElseThrow(() -> new IllegalArgumentException("Medication not found"));
 
-        // Check ownership
-        if (!existing.getUser().getId().equals(user.getId())) {
+        // Check ownership, the id of the lazy user reference needs no extra query
+        if (!existing.getUser().getId().equals(principal.getUserId())) {
             return ResponseEntity.status(403).build();
         }
+        // A change that slips in between this check and the update fails the version check in the
+        // UPDATE itself, see GlobalExceptionHandler
+        if (ifMatch != null && !matchesIfMatch(ifMatch, existing.getVersion())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(rowETag(existing.getVersion())).build();
+        }
 
         // Apply updates if provided
         if (dto.getDosage() != null && !dto.getDosage().isBlank()) {
@@ -128,6 +188,7 @@ public class UserMedicationController {
             existing.setInstructions(dto.getInstructions());
         }
         UserMedication updated = userMedicationService.save(existing);
+        drugInteractionService.invalidate(principal.getUserId());
 
         // Map to response DTO
         UserMedicationResponse response = new UserMedicationResponse(
@@ -137,30 +198,46 @@ public class UserMedicationController {
                 updated.getDosage(),
                 updated.getFrequency(),
                 updated.getStartDate(),
-                updated.getInstructions()
+                updated.getInstructions(),
+                updated.getVersion()
         );
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(rowETag(updated.getVersion())).body(response);
     }   
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUserMedication(@PathVariable Long id) {
-        
-        // get authenticated user
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
+    public ResponseEntity<Void> deleteUserMedication(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+
         UserMedication existing = userMedicationService.getById(id)
             .orElseThrow(() -> new IllegalArgumentException("Medication not found"));
 
-        if (!existing.getUser().getId().equals(user.getId())) {
+        if (!existing.getUser().getId().equals(principal.getUserId())) {
             return ResponseEntity.status(403).build();
         }
 
         userMedicationService.deleteById(id);
+        drugInteractionService.invalidate(principal.getUserId());
         return ResponseEntity.noContent().build();
     }
-    
+
+    // Per user, so one user's ETag can never validate another's copy of /me
+    private String listETag(Long userId) {
+        return "\"" + userId + "." + userMedicationService.getListVersion(userId) + "\"";
+    }
+
+    private static String rowETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-Match is * or a list of strong ETags, weak ones never match
+    static boolean matchesIfMatch(String ifMatch, Long version) {
+        String current = rowETag(version);
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,16 +1,27 @@
 package com.meditrack.backend;
 
+import java.util.Map;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.RestController;
 
 @SpringBootApplication
+@EnableScheduling // background jobs such as drug cache warming
 @RestController
 public class MeditrackApplication {
 
 
 	public static void main(String[] args) {
-		SpringApplication.run(MeditrackApplication.class, args);
+		SpringApplication application = new SpringApplication(MeditrackApplication.class);
+		// Behind the hosting reverse proxy, let Tomcat take the client address from
+		// X-Forwarded-For hops added by trusted internal proxies only
+		// (server.tomcat.remoteip.internal-proxies), so clients cannot spoof it
+		application.setDefaultProperties(Map.of("server.forward-headers-strategy", "native",
+				// With Hibernate statistics on, keep the per-session metrics block out of the INFO log
+				"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener", "WARN"));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,145 @@
+package com.meditrack.backend.Model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// An email waiting in the outbox, saved in the same transaction as the change that triggers it
+// and sent later by EmailOutboxDispatcher
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutboxMessage {
+
+    public enum Status { PENDING, SENT, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String html;
+
+    // Plain-text alternate, null for messages queued before there was one
+    @Column(name = "text_body", columnDefinition = "TEXT")
+    private String text;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    private String providerId;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Constructors
+    public EmailOutboxMessage() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public EmailOutboxMessage(String toEmail, String subject, String html, String text) {
+        this();
+        this.toEmail = toEmail;
+        this.subject = subject;
+        this.html = html;
+        this.text = text;
+    }
+
+    // Claimed by a dispatcher, which sends it outside any transaction. No other dispatcher picks
+    // it up until the lease runs out, which is also how a crash mid-send gets it retried
+    public void lease(LocalDateTime until) {
+        this.nextAttemptAt = until;
+    }
+
+    // Delivered, the provider's id is kept for tracing
+    public void markSent(String providerId, LocalDateTime now) {
+        this.status = Status.SENT;
+        this.providerId = providerId;
+        this.sentAt = now;
+        this.lastError = null;
+    }
+
+    // One more failed attempt, retried at nextAttemptAt or given up on once out of attempts
+    public void markFailed(String error, LocalDateTime nextAttemptAt, int maxAttempts) {
+        this.attempts++;
+        this.lastError = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+        if (attempts >= maxAttempts) {
+            this.status = Status.FAILED;
+        } else {
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+
+    // Rejected in a way retrying cannot fix, e.g. an invalid recipient
+    public void giveUp(String error) {
+        this.attempts++;
+        this.lastError = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+        this.status = Status.FAILED;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,47 @@
+package com.meditrack.backend.Model;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import com.meditrack.backend.config.EntityCacheConfig;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Per-user counter bumped in the same transaction as every change to the user's medications.
+// The list endpoints use it as their ETag, so an unchanged list is answered without reading it.
+// Kept apart from users so bumping it leaves the users cache alone
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.MEDICATION_LIST_VERSIONS)
+@Table(name = "user_medication_lists")
+public class MedicationListVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+
+    public MedicationListVersion(Long userId) {
+        this.userId = userId;
+    }
+
+    //for JPA
+    protected MedicationListVersion() {
+    }
+
+    public void increment() {
+        version++;
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+    public long getVersion() {
+        return version;
+    }
+}
@@ -1,10 +1,15 @@
 package com.meditrack.backend.Model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import com.meditrack.backend.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import java.util.Date;
 
 // Marks this class as a JPA entity mapped to a database table
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USERS)
 @Table(name="users")
 public class User {
 
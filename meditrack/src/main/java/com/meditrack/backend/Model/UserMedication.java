@@ -1,15 +1,23 @@
 package com.meditrack.backend.Model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import com.meditrack.backend.config.EntityCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USER_MEDICATIONS)
 @Table(name = "user_medications")
 public class UserMedication {
 
@@ -27,8 +35,12 @@ public class UserMedication {
     private LocalDate startDate; // Date when user started taking this medication
     private String instructions; // e.g., "Take with food"
 
-    // Establish Many-to-One relationship with User entity
-    @ManyToOne
+    // Bumped on every update, an update made from a stale copy fails instead of overwriting
+    @Version
+    private Long version;
+
+    // Establish Many-to-One relationship with User entity, loaded only when used
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false) 
     private User user;
 
@@ -76,6 +88,10 @@ public class UserMedication {
         return instructions;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public User getUser() {
         return user;
     }
@@ -0,0 +1,218 @@
+package com.meditrack.backend.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.meditrack.backend.Model.EmailOutboxMessage;
+import com.meditrack.backend.Service.ResendEmailClient.EmailDeliveryException;
+import com.meditrack.backend.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+// Drains the email outbox in the background. Each round claims a batch of due messages in one
+// short transaction, SELECT ... FOR UPDATE SKIP LOCKED then a lease that pushes next_attempt_at
+// out by lease-seconds, so instances running side by side never pick the same message. The batch
+// goes out in one Resend call with no transaction or connection held, and the outcome is recorded
+// in a second short transaction. A failed batch is retried with exponential backoff and jitter,
+// and a message is given up on (FAILED) after max-attempts or when Resend rejects it outright.
+// Delivery is at least once: a crash between the send and the second commit sends that batch
+// again once its lease runs out.
+// Runs every poll-ms, and right after a transaction that queued a message commits.
+//   email.outbox.batch-size, poll-ms, lease-seconds, max-attempts, backoff-base-seconds, backoff-max-seconds
+// Meters: email.outbox.pending, email.outbox.oldest.age (seconds), email.outbox.sent,
+// email.outbox.retried, email.outbox.failed, email.outbox.auth.failures (Resend refused the API key)
+@Component
+public class EmailOutboxDispatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final ResendEmailClient resend;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollMillis;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean wakePending = new AtomicBoolean();
+
+    // Refreshed every round, so scraping metrics never queries the database
+    private volatile long pending;
+    private volatile double oldestAgeSeconds;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder authFailures = new LongAdder();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository, ResendEmailClient resend,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${email.outbox.dispatcher.enabled:true}") boolean enabled,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.poll-ms:1000}") long pollMillis,
+                                 @Value("${email.outbox.lease-seconds:600}") long leaseSeconds,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-base-seconds:30}") long backoffBaseSeconds,
+                                 @Value("${email.outbox.backoff-max-seconds:3600}") long backoffMaxSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.resend = resend;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, Math.min(batchSize, ResendEmailClient.MAX_BATCH));
+        this.pollMillis = pollMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "email-outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::drain, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Runs a round soon instead of at the next poll, repeated calls before it runs collapse into one
+    public void wake() {
+        if (!enabled || !wakePending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                wakePending.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            wakePending.set(false); // shutting down
+        }
+    }
+
+    // Rounds until a batch comes back short, then refreshes the queue metrics
+    private void drain() {
+        try {
+            while (dispatchOnce() == batchSize) {
+                // more may be due
+            }
+            refreshStats();
+        } catch (RuntimeException e) {
+            log.warn("Email outbox round failed: {}", e.getMessage());
+        }
+    }
+
+    // One round: claims up to batch-size due messages and sends them, returns how many were claimed
+    public int dispatchOnce() {
+        List<EmailOutboxMessage> batch = transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutboxMessage> due = outboxRepository.claimDue(now, PageRequest.of(0, batchSize));
+            for (EmailOutboxMessage message : due) {
+                message.lease(now.plus(lease));
+            }
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        // The claimed messages are detached now, the outcome is merged back afterwards
+        send(batch, LocalDateTime.now());
+        transaction.executeWithoutResult(status -> outboxRepository.saveAll(batch));
+        return batch.size();
+    }
+
+    private void send(List<EmailOutboxMessage> batch, LocalDateTime now) {
+        try {
+            List<String> ids = resend.sendBatch(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).markSent(ids.get(i), now);
+            }
+            sent.add(batch.size());
+        } catch (EmailDeliveryException e) {
+            if (e.isPermanent() && batch.size() > 1) {
+                // One bad message fails the whole batch, send them one by one to find it
+                for (EmailOutboxMessage message : batch) {
+                    send(List.of(message), now);
+                }
+                return;
+            }
+            for (EmailOutboxMessage message : batch) {
+                if (e.isPermanent()) {
+                    message.giveUp(e.getMessage());
+                } else {
+                    message.markFailed(e.getMessage(), now.plus(backoff(message.getAttempts() + 1)), maxAttempts);
+                }
+                if (message.getStatus() == EmailOutboxMessage.Status.FAILED) {
+                    failed.increment();
+                    log.error("Giving up on email {} to {} after {} attempts: {}", message.getId(), message.getToEmail(), message.getAttempts(), e.getMessage());
+                } else {
+                    retried.increment();
+                }
+            }
+            if (e.isAuthFailure()) {
+                authFailures.increment();
+                log.error("Resend refused the API key, email batch of {} will retry: {}", batch.size(), e.getMessage());
+            } else if (!e.isPermanent()) {
+                log.warn("Email batch of {} failed, will retry: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    // base * 2^(attempt - 1), capped, with up to 20% jitter so failed batches do not retry in lockstep
+    Duration backoff(int attempt) {
+        long seconds = backoffBase.getSeconds() << Math.min(attempt - 1, 20);
+        seconds = Math.min(seconds, backoffMax.getSeconds());
+        long jitter = (long) (seconds * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofSeconds(seconds - jitter);
+    }
+
+    private void refreshStats() {
+        pending = outboxRepository.countByStatus(EmailOutboxMessage.Status.PENDING);
+        oldestAgeSeconds = outboxRepository.findOldestCreatedAt(EmailOutboxMessage.Status.PENDING)
+                .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000d)
+                .orElse(0d);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("email.outbox.pending", this, d -> d.pending).register(registry);
+        Gauge.builder("email.outbox.oldest.age", this, d -> d.oldestAgeSeconds).baseUnit("seconds").register(registry);
+        FunctionCounter.builder("email.outbox.sent", sent, LongAdder::sum).register(registry);
+        FunctionCounter.builder("email.outbox.retried", retried, LongAdder::sum).register(registry);
+        FunctionCounter.builder("email.outbox.failed", failed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("email.outbox.auth.failures", authFailures, LongAdder::sum).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
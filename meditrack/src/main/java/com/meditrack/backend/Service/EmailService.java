@@ -1,120 +1,73 @@
 package com.meditrack.backend.Service;
 
-import com.resend.Resend;
-import com.resend.core.exception.ResendException;
-import com.resend.services.emails.model.CreateEmailOptions;
-import com.resend.services.emails.model.CreateEmailResponse;
+import com.meditrack.backend.Model.EmailOutboxMessage;
+import com.meditrack.backend.repository.EmailOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.Map;
+
+// Renders the app's emails from EmailTemplates and queues them in the outbox. Nothing is sent
+// from the request: the message is saved in the caller's transaction, so it goes out only if
+// that commits, and EmailOutboxDispatcher delivers it in the background
 @Service
 public class EmailService {
 
     private static final Logger log = LoggerFactory.getLogger(EmailService.class);
 
-    private final Resend resend;
-
-    @Value("${resend.from.email:onboarding@resend.dev}")
-    private String fromEmail;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxDispatcher dispatcher;
+    private final EmailTemplates templates;
 
     @Value("${app.frontend.url:https://example.com}")
     private String frontendUrl;
 
-    public EmailService(@Value("${resend.api.key}") String apiKey) {
-        this.resend = new Resend(apiKey);
+    public EmailService(EmailOutboxRepository outboxRepository, EmailOutboxDispatcher dispatcher, EmailTemplates templates) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.templates = templates;
     }
 
     public void sendVerificationEmail(String toEmail, String token) {
-        String verificationUrl = frontendUrl + "/verify-email?token=" + token;
-        
-        String htmlContent = "<html><body>" +
-                "<h2>Welcome to MediTrack!</h2>" +
-                "<p>Please verify your email address by clicking the button below:</p>" +
-                "<a href=\"" + verificationUrl + "\" style=\"display: inline-block; padding: 10px 20px; background-color: #4F46E5; color: white; text-decoration: none; border-radius: 5px;\">Verify Email</a>" +
-                "<p>Or copy and paste this link into your browser:</p>" +
-                "<p>" + verificationUrl + "</p>" +
-                "<p>This link will expire in 24 hours.</p>" +
-                "<p>If you didn't create an account with MediTrack, please ignore this email.</p>" +
-                "<p>Best regards,<br>MediTrack Team</p>" +
-                "</body></html>";
-
-        sendEmail(toEmail, "MediTrack - Verify Your Email Address", htmlContent);
+        sendEmail(toEmail, "verification", Map.of("link", frontendUrl + "/verify-email?token=" + token));
     }
 
     public void sendPasswordResetEmail(String toEmail, String token) {
-        String resetUrl = frontendUrl + "/reset-password?token=" + token;
-        
-        String htmlContent = "<html><body>" +
-                "<h2>Password Reset Request</h2>" +
-                "<p>We received a request to reset your password. Click the button below to create a new password:</p>" +
-                "<a href=\"" + resetUrl + "\" style=\"display: inline-block; padding: 10px 20px; background-color: #4F46E5; color: white; text-decoration: none; border-radius: 5px;\">Reset Password</a>" +
-                "<p>Or copy and paste this link into your browser:</p>" +
-                "<p>" + resetUrl + "</p>" +
-                "<p>This link will expire in 1 hour.</p>" +
-                "<p>If you didn't request a password reset, please ignore this email and your password will remain unchanged.</p>" +
-                "<p>Best regards,<br>MediTrack Team</p>" +
-                "</body></html>";
-
-        sendEmail(toEmail, "MediTrack - Reset Your Password", htmlContent);
+        sendEmail(toEmail, "password-reset", Map.of("link", frontendUrl + "/reset-password?token=" + token));
     }
 
     public void sendPasswordChangeConfirmation(String toEmail, String userName) {
-        String htmlContent = "<html><body>" +
-                "<h2>Password Changed Successfully</h2>" +
-                "<p>Hello " + userName + ",</p>" +
-                "<p>Your password was successfully changed.</p>" +
-                "<p>If you didn't make this change, please contact our support team immediately.</p>" +
-                "<p>Best regards,<br>MediTrack Team</p>" +
-                "</body></html>";
-
-        sendEmail(toEmail, "MediTrack - Password Changed Successfully", htmlContent);
+        sendEmail(toEmail, "password-changed-confirmation", Map.of("name", userName == null ? "" : userName));
     }
 
     public void sendPasswordChangeNotification(String toEmail) {
-        String htmlContent = "<html><body>" +
-                "<h2>Password Changed</h2>" +
-                "<p>Hello,</p>" +
-                "<p>Your MediTrack password was recently changed.</p>" +
-                "<p>If you didn't make this change, please reset your password immediately or contact support.</p>" +
-                "<p>Best regards,<br>MediTrack Team</p>" +
-                "</body></html>";
-
-        sendEmail(toEmail, "MediTrack - Password Changed", htmlContent);
+        sendEmail(toEmail, "password-changed", Map.of());
     }
 
     public void sendEmailChangeVerification(String newEmail, String token) {
-        String verificationUrl = frontendUrl + "/verify-email?token=" + token;
-        
-        String htmlContent = "<html><body>" +
-                "<h2>Verify Your New Email Address</h2>" +
-                "<p>Please verify your new email address by clicking the button below:</p>" +
-                "<a href=\"" + verificationUrl + "\" style=\"display: inline-block; padding: 10px 20px; background-color: #4F46E5; color: white; text-decoration: none; border-radius: 5px;\">Verify Email</a>" +
-                "<p>Or copy and paste this link into your browser:</p>" +
-                "<p>" + verificationUrl + "</p>" +
-                "<p>This link will expire in 24 hours.</p>" +
-                "<p>If you didn't request this email change, please contact our support team.</p>" +
-                "<p>Best regards,<br>MediTrack Team</p>" +
-                "</body></html>";
-
-        sendEmail(newEmail, "MediTrack - Verify Your New Email Address", htmlContent);
+        sendEmail(newEmail, "email-change-verification", Map.of("link", frontendUrl + "/verify-email?token=" + token));
     }
 
-    private void sendEmail(String toEmail, String subject, String htmlContent) {
-        try {
-            CreateEmailOptions params = CreateEmailOptions.builder()
-                    .from(fromEmail)
-                    .to(toEmail)
-                    .subject(subject)
-                    .html(htmlContent)
-                    .build();
-
-            CreateEmailResponse data = resend.emails().send(params);
-            log.info("Email sent successfully to {} with ID: {}", toEmail, data.getId());
-        } catch (ResendException e) {
-            log.error("Failed to send email to {}: {}", toEmail, e.getMessage(), e);
-            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+    // Renders in the locale of the current request (Accept-Language), the default outside one
+    private void sendEmail(String toEmail, String template, Map<String, String> model) {
+        EmailTemplates.RenderedEmail email = templates.render(template, LocaleContextHolder.getLocale(), model);
+        EmailOutboxMessage message = outboxRepository.save(new EmailOutboxMessage(toEmail, email.getSubject(), email.getHtml(), email.getText()));
+        log.info("Email {} to {} queued", message.getId(), toEmail);
+        // Send right after the commit rather than at the next poll
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wake();
+                }
+            });
+        } else {
+            dispatcher.wake();
         }
     }
 }
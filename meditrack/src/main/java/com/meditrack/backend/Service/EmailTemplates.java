@@ -0,0 +1,169 @@
+package com.meditrack.backend.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import com.meditrack.backend.util.CompiledTemplate;
+
+// Email bodies from classpath:email-templates, every file compiled once at startup (see
+// CompiledTemplate for the syntax). A template is a pair, <name>.html and its plain-text
+// alternate <name>.txt, with translations as <name>_<locale>.html/.txt and subjects in
+// subjects[_<locale>].properties. Lookups fall back from language_COUNTRY to language to the
+// default. Files starting with _ are partials, resolved for the including template's locale
+// the same way. Rendering reuses one buffer per thread
+@Component
+public class EmailTemplates {
+
+    private static final String LOCATION = "email-templates/";
+    // Buffers that grew past this are dropped rather than kept per thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    // By file name without the directory, e.g. "verification_es.html"
+    private final Map<String, CompiledTemplate> compiled = new HashMap<>();
+    private final ResourceBundleMessageSource subjects = new ResourceBundleMessageSource();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public EmailTemplates() {
+        Map<String, String> sources = new HashMap<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath*:" + LOCATION + "*.*");
+            for (Resource resource : resources) {
+                String file = resource.getFilename();
+                if (file != null && (file.endsWith(".html") || file.endsWith(".txt"))) {
+                    sources.put(file, resource.getContentAsString(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read email templates", e);
+        }
+        for (String file : sources.keySet()) {
+            compile(file, sources, new HashSet<>());
+        }
+        subjects.setBasename(LOCATION + "subjects");
+        subjects.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        subjects.setFallbackToSystemLocale(false);
+    }
+
+    private CompiledTemplate compile(String file, Map<String, String> sources, Set<String> inProgress) {
+        CompiledTemplate done = compiled.get(file);
+        if (done != null) {
+            return done;
+        }
+        if (!inProgress.add(file)) {
+            throw new IllegalStateException("Email template " + file + " includes itself");
+        }
+        String source = sources.get(file);
+        if (file.startsWith("_") && source.endsWith("\n")) {
+            source = source.substring(0, source.length() - 1); // partials are spliced in mid-line
+        }
+        String extension = file.substring(file.lastIndexOf('.'));
+        String suffix = localeSuffix(file.substring(0, file.length() - extension.length()));
+        CompiledTemplate template = CompiledTemplate.compile(file, source, extension.equals(".html"), partial -> {
+            for (String candidate : candidates("_" + partial, suffix, extension)) {
+                if (sources.containsKey(candidate)) {
+                    return compile(candidate, sources, inProgress);
+                }
+            }
+            return null;
+        });
+        inProgress.remove(file);
+        compiled.put(file, template);
+        return template;
+    }
+
+    // Subject, HTML body and text body of a template for the locale
+    public RenderedEmail render(String name, Locale locale, Map<String, String> model) {
+        String subject;
+        try {
+            subject = subjects.getMessage(name + ".subject", null, locale);
+        } catch (NoSuchMessageException e) {
+            throw new IllegalArgumentException("No subject for email template " + name, e);
+        }
+        StringBuilder buffer = buffers.get();
+        try {
+            buffer.setLength(0);
+            find(name, locale, ".html").renderTo(model, buffer);
+            String html = buffer.toString();
+            buffer.setLength(0);
+            find(name, locale, ".txt").renderTo(model, buffer);
+            return new RenderedEmail(subject, html, buffer.toString());
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                buffers.remove();
+            }
+        }
+    }
+
+    private CompiledTemplate find(String name, Locale locale, String extension) {
+        String suffix = locale == null || locale.getLanguage().isEmpty() ? ""
+                : locale.getCountry().isEmpty() ? locale.getLanguage() : locale.getLanguage() + "_" + locale.getCountry();
+        for (String candidate : candidates(name, suffix, extension)) {
+            CompiledTemplate template = compiled.get(candidate);
+            if (template != null) {
+                return template;
+            }
+        }
+        throw new IllegalArgumentException("No email template " + name + extension);
+    }
+
+    // name_ll_CC, name_ll, name for suffix ll_CC
+    private static String[] candidates(String name, String suffix, String extension) {
+        if (suffix.isEmpty()) {
+            return new String[] { name + extension };
+        }
+        int underscore = suffix.indexOf('_');
+        if (underscore < 0) {
+            return new String[] { name + "_" + suffix + extension, name + extension };
+        }
+        return new String[] { name + "_" + suffix + extension, name + "_" + suffix.substring(0, underscore) + extension, name + extension };
+    }
+
+    // "verification_pt_BR" -> "pt_BR", "_footer_es" -> "es", "verification" -> ""
+    private static String localeSuffix(String baseName) {
+        String[] parts = baseName.replaceFirst("^_", "").split("_");
+        if (parts.length >= 3 && parts[parts.length - 1].matches("[A-Z]{2}")) {
+            return parts[parts.length - 2] + "_" + parts[parts.length - 1];
+        }
+        if (parts.length >= 2 && parts[parts.length - 1].matches("[a-z]{2,3}")) {
+            return parts[parts.length - 1];
+        }
+        return "";
+    }
+
+    // A rendered email ready for the outbox
+    public static final class RenderedEmail {
+
+        private final String subject;
+        private final String html;
+        private final String text;
+
+        RenderedEmail(String subject, String html, String text) {
+            this.subject = subject;
+            this.html = html;
+            this.text = text;
+        }
+
+        // Getters
+        public String getSubject() {
+            return subject;
+        }
+        public String getHtml() {
+            return html;
+        }
+        public String getText() {
+            return text;
+        }
+    }
+}
@@ -4,9 +4,6 @@ import com.meditrack.backend.Model.EmailVerificationToken;
 import com.meditrack.backend.Model.User;
 import com.meditrack.backend.repository.EmailVerificationTokenRepository;
 import com.meditrack.backend.util.TokenUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,14 +12,9 @@ import java.time.LocalDateTime;
 @Service
 public class EmailVerificationService {
 
-    private static final Logger log = LoggerFactory.getLogger(EmailVerificationService.class);
-    
     private final EmailVerificationTokenRepository tokenRepository;
     private final EmailService emailService;
 
-    @Value("${app.frontend.url:https://example.com}")
-    private String frontendUrl;
-
     public EmailVerificationService(EmailVerificationTokenRepository tokenRepository, EmailService emailService) {
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
@@ -41,16 +33,8 @@ public class EmailVerificationService {
         EmailVerificationToken verificationToken = new EmailVerificationToken(token, user, expiryDate);
         tokenRepository.save(verificationToken);
 
-        // Send email (or log for development)
-        try {
-            emailService.sendVerificationEmail(user.getEmail(), token);
-        } catch (Exception e) {
-            log.warn("Email sending failed (expected in dev): {}", e.getMessage());
-            log.info("====================================");
-            log.info("VERIFICATION LINK FOR DEVELOPMENT:");
-            log.info("{}/verify-email?token={}", frontendUrl, token);
-            log.info("====================================");
-        }
+        // Queued in the outbox, sent once this transaction commits
+        emailService.sendVerificationEmail(user.getEmail(), token);
     }
 
     public EmailVerificationToken validateToken(String token) {
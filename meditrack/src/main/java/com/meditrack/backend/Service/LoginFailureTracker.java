@@ -0,0 +1,153 @@
+package com.meditrack.backend.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.meditrack.backend.exception.TooManyLoginAttemptsException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Counts failed logins per account and per client address over a sliding window, so that once
+// either has failed too often further attempts are turned away before any BCrypt work. Unknown
+// emails count against their account key like real ones, which keeps the two indistinguishable.
+// Each key keeps only its last N failure times, and idle keys expire after one window, so memory
+// stays bounded by the tracked key limit.
+//   security.login.window-seconds          sliding window length
+//   security.login.account-max-failures    failures per account within the window
+//   security.login.ip-max-failures         failures per address within the window, across accounts
+// Meters: login.failures, login.blocked, login.tracked
+@Component
+public class LoginFailureTracker implements MeterBinder {
+
+    private final long windowMillis;
+    private final int accountMaxFailures;
+    private final int ipMaxFailures;
+    private final LongSupplier clock;
+
+    private final Cache<String, FailureWindow> accounts;
+    private final Cache<String, FailureWindow> addresses;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blockedByAccount = new LongAdder();
+    private final LongAdder blockedByIp = new LongAdder();
+
+    @Autowired
+    public LoginFailureTracker(@Value("${security.login.window-seconds:900}") long windowSeconds,
+                               @Value("${security.login.account-max-failures:5}") int accountMaxFailures,
+                               @Value("${security.login.ip-max-failures:20}") int ipMaxFailures,
+                               @Value("${security.login.max-tracked:100000}") long maxTracked) {
+        this(windowSeconds, accountMaxFailures, ipMaxFailures, maxTracked, System::currentTimeMillis);
+    }
+
+    LoginFailureTracker(long windowSeconds, int accountMaxFailures, int ipMaxFailures, long maxTracked, LongSupplier clock) {
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.accountMaxFailures = accountMaxFailures;
+        this.ipMaxFailures = ipMaxFailures;
+        this.clock = clock;
+        this.accounts = CacheBuilder.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(windowSeconds, TimeUnit.SECONDS)
+                .build();
+        this.addresses = CacheBuilder.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(windowSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    // Throws TooManyLoginAttemptsException while the account or the address is blocked
+    public void checkAllowed(String email, String clientIp) {
+        long now = clock.getAsLong();
+        long accountUntil = blockedUntil(accounts, accountKey(email), now);
+        if (accountUntil > now) {
+            blockedByAccount.increment();
+            throw new TooManyLoginAttemptsException(retryAfterSeconds(accountUntil, now));
+        }
+        long ipUntil = clientIp == null ? 0 : blockedUntil(addresses, clientIp, now);
+        if (ipUntil > now) {
+            blockedByIp.increment();
+            throw new TooManyLoginAttemptsException(retryAfterSeconds(ipUntil, now));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = clock.getAsLong();
+        failures.increment();
+        windowFor(accounts, accountKey(email), accountMaxFailures).record(now);
+        if (clientIp != null) {
+            windowFor(addresses, clientIp, ipMaxFailures).record(now);
+        }
+    }
+
+    // A correct password clears the account, the address keeps its count since it may be guessing others
+    public void recordSuccess(String email) {
+        accounts.invalidate(accountKey(email));
+    }
+
+    private long blockedUntil(Cache<String, FailureWindow> cache, String key, long now) {
+        FailureWindow window = cache.getIfPresent(key);
+        return window == null ? 0 : window.blockedUntil(now, windowMillis);
+    }
+
+    private static FailureWindow windowFor(Cache<String, FailureWindow> cache, String key, int maxFailures) {
+        FailureWindow window = cache.getIfPresent(key);
+        if (window != null) {
+            return window;
+        }
+        return cache.asMap().computeIfAbsent(key, k -> new FailureWindow(maxFailures));
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long retryAfterSeconds(long until, long now) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(until - now + 999));
+    }
+
+    // The times of the last maxFailures failures in a ring. The key is blocked while the ring is
+    // full and its oldest entry is still inside the window, that is until oldest + window
+    static final class FailureWindow {
+
+        private final long[] times;
+        private int next;
+        private int count;
+
+        FailureWindow(int maxFailures) {
+            this.times = new long[Math.max(1, maxFailures)];
+        }
+
+        synchronized void record(long now) {
+            times[next] = now;
+            next = (next + 1) % times.length;
+            count = Math.min(count + 1, times.length);
+        }
+
+        synchronized long blockedUntil(long now, long windowMillis) {
+            if (count < times.length) {
+                return 0;
+            }
+            long oldest = times[next];
+            return oldest > now - windowMillis ? oldest + windowMillis : 0;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("login.failures", failures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("login.blocked", blockedByAccount, LongAdder::sum).tag("scope", "account").register(registry);
+        FunctionCounter.builder("login.blocked", blockedByIp, LongAdder::sum).tag("scope", "ip").register(registry);
+        Gauge.builder("login.tracked", accounts, Cache::size).tag("scope", "account").register(registry);
+        Gauge.builder("login.tracked", addresses, Cache::size).tag("scope", "ip").register(registry);
+    }
+}
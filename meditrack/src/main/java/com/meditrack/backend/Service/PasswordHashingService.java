@@ -0,0 +1,128 @@
+package com.meditrack.backend.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.meditrack.backend.exception.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Runs BCrypt off the request threads on a pool sized to the cores, so a burst of logins cannot
+// take every Tomcat thread and starve cheap endpoints. Callers wait for their hash, but once the
+// queue is full new work is rejected right away with PasswordHashingBusyException (503 with a
+// Retry-After estimated from the queue depth and the average hash time).
+// Meters: password.hash (time per hash or match), password.hash.queue.depth, password.hash.rejected
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long waitTimeoutMillis;
+    private final Timer hashTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+    // Hash of a throwaway password at the configured strength, built on first use
+    private volatile String dummyHash;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${security.password.hash-threads:0}") int threads,
+                                  @Value("${security.password.hash-queue:64}") int queueCapacity,
+                                  @Value("${security.password.hash-wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        // 0 means one thread per core
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.hashTimer = Timer.builder("password.hash").tag("operation", "hash").register(meterRegistry);
+        this.matchTimer = Timer.builder("password.hash").tag("operation", "match").register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), hashTimer);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchTimer);
+    }
+
+    // Costs the same as matches, for login attempts against an email with no account, so the
+    // response time does not tell which emails are registered. Always false
+    public boolean simulateMatch(String rawPassword) {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = hash(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        matches(rawPassword == null ? "" : rawPassword, hash);
+        return false;
+    }
+
+    // True when the stored hash uses a lower work factor than the one configured now
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> work, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(work));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfterSeconds());
+        }
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusyException(retryAfterSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // Time to drain the current queue across all threads, at least a second
+    private long retryAfterSeconds() {
+        double meanMillis = Math.max(hashTimer.mean(TimeUnit.MILLISECONDS), matchTimer.mean(TimeUnit.MILLISECONDS));
+        double drainMillis = (executor.getQueue().size() + threads) * meanMillis / threads;
+        return Math.max(1, (long) Math.ceil(drainMillis / 1000));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -4,9 +4,6 @@ import com.meditrack.backend.Model.PasswordResetToken;
 import com.meditrack.backend.Model.User;
 import com.meditrack.backend.repository.PasswordResetTokenRepository;
 import com.meditrack.backend.util.TokenUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,14 +12,9 @@ import java.time.LocalDateTime;
 @Service
 public class PasswordResetService {
 
-    private static final Logger log = LoggerFactory.getLogger(PasswordResetService.class);
-    
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
 
-    @Value("${app.frontend.url:https://example.com}")
-    private String frontendUrl;
-
     public PasswordResetService(PasswordResetTokenRepository tokenRepository, EmailService emailService) {
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
@@ -41,16 +33,8 @@ public class PasswordResetService {
         PasswordResetToken resetToken = new PasswordResetToken(token, user, expiryDate);
         tokenRepository.save(resetToken);
 
-        // Send email (or log for development)
-        try {
-            emailService.sendPasswordResetEmail(user.getEmail(), token);
-        } catch (Exception e) {
-            log.warn("Email sending failed (expected in dev): {}", e.getMessage());
-            log.info("====================================");
-            log.info("PASSWORD RESET LINK FOR DEVELOPMENT:");
-            log.info("{}/reset-password?token={}", frontendUrl, token);
-            log.info("====================================");
-        }
+        // Queued in the outbox, sent once this transaction commits
+        emailService.sendPasswordResetEmail(user.getEmail(), token);
     }
 
     public PasswordResetToken validateToken(String token) {
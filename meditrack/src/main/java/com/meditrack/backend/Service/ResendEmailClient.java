@@ -0,0 +1,127 @@
+package com.meditrack.backend.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.Model.EmailOutboxMessage;
+
+// Sends outbox messages through Resend's batch endpoint, up to 100 emails per call. Talks to the
+// HTTP API directly rather than through the SDK so the base URL can point at a local fake in tests
+@Component
+public class ResendEmailClient {
+
+    // Resend accepts at most this many emails per batch call
+    public static final int MAX_BATCH = 100;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+    private final URI batchUri;
+    private final String fromEmail;
+    private final Duration timeout;
+
+    public ResendEmailClient(ObjectMapper objectMapper,
+                             @Value("${resend.api.key}") String apiKey,
+                             @Value("${resend.api.url:https://api.resend.com}") String apiUrl,
+                             @Value("${resend.from.email:onboarding@resend.dev}") String fromEmail,
+                             @Value("${resend.timeout-ms:10000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+        this.batchUri = URI.create(apiUrl.replaceAll("/+$", "") + "/emails/batch");
+        this.fromEmail = fromEmail;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    // Sends the messages as one batch and returns Resend's ids in the same order
+    public List<String> sendBatch(List<EmailOutboxMessage> messages) throws EmailDeliveryException {
+        List<Map<String, Object>> body = new ArrayList<>(messages.size());
+        for (EmailOutboxMessage message : messages) {
+            Map<String, Object> email = new LinkedHashMap<>();
+            email.put("from", fromEmail);
+            email.put("to", List.of(message.getToEmail()));
+            email.put("subject", message.getSubject());
+            email.put("html", message.getHtml());
+            if (message.getText() != null) {
+                email.put("text", message.getText());
+            }
+            body.add(email);
+        }
+        HttpResponse<String> response;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(batchUri)
+                    .timeout(timeout)
+                    .header("Authorization", "Bearer " + apiKey)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new EmailDeliveryException("Resend unreachable: " + e.getMessage(), 0, false, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailDeliveryException("Interrupted sending email", 0, false, e);
+        }
+
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            // Other 4xx mean the request itself is wrong. 401 and 403 are a bad or revoked API key,
+            // which is our configuration rather than the message, and 408, 429 and 5xx are transient
+            boolean permanent = status >= 400 && status < 500
+                    && status != 401 && status != 403 && status != 408 && status != 429;
+            throw new EmailDeliveryException("Resend answered " + status + ": " + response.body(), status, permanent, null);
+        }
+        List<String> ids = new ArrayList<>(messages.size());
+        try {
+            for (JsonNode sent : objectMapper.readTree(response.body()).path("data")) {
+                ids.add(sent.path("id").asText(null));
+            }
+        } catch (IOException e) {
+            // Accepted, the ids are only for tracing
+        }
+        while (ids.size() < messages.size()) {
+            ids.add(null);
+        }
+        return ids;
+    }
+
+    // A failed send, permanent when retrying the same request cannot succeed. statusCode is 0
+    // when Resend never answered
+    public static class EmailDeliveryException extends Exception {
+
+        private final int statusCode;
+        private final boolean permanent;
+
+        public EmailDeliveryException(String message, int statusCode, boolean permanent, Throwable cause) {
+            super(message, cause);
+            this.statusCode = statusCode;
+            this.permanent = permanent;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public boolean isPermanent() {
+            return permanent;
+        }
+
+        // Resend refused the API key, no email goes out until the configuration is fixed
+        public boolean isAuthFailure() {
+            return statusCode == 401 || statusCode == 403;
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package com.meditrack.backend.Service;
 
+import com.meditrack.backend.config.CacheInvalidationBus;
+import com.meditrack.backend.dto.UserMedicationPage;
+import com.meditrack.backend.dto.UserMedicationResponse;
+import com.meditrack.backend.repository.MedicationListVersionRepository;
 import com.meditrack.backend.repository.UserMedicationRepository;
 import com.meditrack.backend.repository.UserRepository;
 import com.meditrack.backend.Model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.meditrack.backend.Model.MedicationListVersion;
 import com.meditrack.backend.Model.UserMedication;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.*;
 
 
@@ -14,15 +24,32 @@ public class UserMedicationService {
 
     private final UserMedicationRepository userMedicationRepository;
     private final UserRepository userRepository;
+    // Per-user version of the medication list, bumped with every change to it
+    private final MedicationListVersionRepository listVersionRepository;
+    // Tells other instances to drop their cached copies of a user's medications
+    private final CacheInvalidationBus cacheInvalidationBus;
+    // Largest page a client may ask for, larger limits are clamped to it
+    private final int maxPageSize;
 
     //dependency injection via constructor
-    public UserMedicationService(UserMedicationRepository userMedicationRepository, UserRepository userRepository) {
+    public UserMedicationService(UserMedicationRepository userMedicationRepository, UserRepository userRepository,
+                                 MedicationListVersionRepository listVersionRepository,
+                                 CacheInvalidationBus cacheInvalidationBus,
+                                 @Value("${user-medications.page.max-size:100}") int maxPageSize) {
         this.userMedicationRepository = userMedicationRepository;
         this.userRepository = userRepository;
+        this.listVersionRepository = listVersionRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.maxPageSize = Math.max(1, maxPageSize);
     }
     
+    // the medication and the bumped list version commit together
+    @Transactional
     public UserMedication save(UserMedication userMedication) {
-        return userMedicationRepository.save(userMedication);
+        UserMedication saved = userMedicationRepository.save(userMedication);
+        bumpListVersion(saved.getUser().getId());
+        cacheInvalidationBus.medicationChanged(saved.getUser().getId(), saved.getId());
+        return saved;
     }
 
     public List<UserMedication> getAll() {
@@ -38,8 +65,76 @@ public class UserMedicationService {
         return userMedicationRepository.findByUserId(userId);
     }
 
+    // Current version of the user's medication list, from the second-level cache when warm, so
+    // callers can tell an unchanged list apart without reading it
+    public long getListVersion(Long userId) {
+        return listVersionRepository.findById(userId).map(MedicationListVersion::getVersion).orElse(0L);
+    }
+
+    // Locks the user's version row until commit, so concurrent writes cannot bump to the same value.
+    // Registration creates the row. For users created some other way it is inserted here, with an
+    // insert that concurrent first writes for the same user cannot fail on
+    private void bumpListVersion(Long userId) {
+        Optional<MedicationListVersion> version = listVersionRepository.lockByUserId(userId);
+        if (version.isEmpty()) {
+            listVersionRepository.insertIfAbsent(userId);
+            version = listVersionRepository.lockByUserId(userId);
+        }
+        version.orElseThrow().increment();
+    }
+
+    // A page of the user's medications after the cursor (null for the first page), filtered by a
+    // case-insensitive drug name fragment, exact rxcui and start date range, each optional.
+    // Reads one row past the limit to know whether another page follows.
+    // Throws IllegalArgumentException for a cursor this method did not hand out
+    public UserMedicationPage getPage(Long userId, String cursor, int limit, String drugName, String rxcui,
+                                      LocalDate startedFrom, LocalDate startedTo) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        String pattern = drugName == null || drugName.isBlank() ? null
+                : "%" + drugName.trim().toLowerCase(Locale.ROOT).replaceAll("[!%_]", "!$0") + "%";
+        List<UserMedicationResponse> rows = userMedicationRepository.findPageByUserId(userId, decodeCursor(cursor),
+                pattern, rxcui == null || rxcui.isBlank() ? null : rxcui.trim(), startedFrom, startedTo,
+                PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new UserMedicationPage(rows, null);
+        }
+        List<UserMedicationResponse> page = rows.subList(0, size);
+        return new UserMedicationPage(page, encodeCursor(page.get(size - 1).getId()));
+    }
+
+    // Throws IllegalArgumentException for a cursor getPage would reject, without reading anything
+    public void validateCursor(String cursor) {
+        decodeCursor(cursor);
+    }
+
+    // The cursor is the last id of the previous page, base64url so clients treat it as opaque
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (lastId < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    //loads the medication first (usually already in the persistence context) to know its owner
+    @Transactional
     public void deleteById(Long id) {
-        userMedicationRepository.deleteById(id);
+        userMedicationRepository.findById(id).ifPresent(medication -> {
+            userMedicationRepository.delete(medication);
+            bumpListVersion(medication.getUser().getId());
+            cacheInvalidationBus.medicationChanged(medication.getUser().getId(), id);
+        });
     }
 
     public List<UserMedication> getMedicationsByUserEmail(String email) {
@@ -53,7 +148,7 @@ public class UserMedicationService {
         User user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
         medication.setUser(user);
-        return userMedicationRepository.save(medication); 
+        return save(medication);
     }
 
     // Get medications for a given user
@@ -1,14 +1,18 @@
 package com.meditrack.backend.Service;
 
+import com.meditrack.backend.config.CacheInvalidationBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.meditrack.backend.Model.User;
+import com.meditrack.backend.Model.MedicationListVersion;
 import com.meditrack.backend.Model.RefreshToken;
 import com.meditrack.backend.dto.AuthResponse;
 import com.meditrack.backend.dto.RegisterRequest;
 import com.meditrack.backend.dto.UserResponse;
+import com.meditrack.backend.exception.PasswordHashingBusyException;
+import com.meditrack.backend.repository.MedicationListVersionRepository;
 import com.meditrack.backend.repository.UserRepository;
 import com.meditrack.backend.util.JwtUtil;
 
@@ -20,8 +24,10 @@ public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
     // Dependencies, repo for accessing user data in db 
     private final UserRepository userRepository;
-    // Password encoder for hashing passwords
-    private final PasswordEncoder passwordEncoder;
+    // Version of each user's medication list, created along with the user
+    private final MedicationListVersionRepository listVersionRepository;
+    // Hashes and checks passwords on a bounded pool of its own
+    private final PasswordHashingService passwordHashingService;
     // JWT utility for token generation and validation
     private final JwtUtil jwtUtil;
     // Refresh token service
@@ -30,21 +36,31 @@ public class UserService {
     private final EmailVerificationService emailVerificationService;
     // Email service
     private final EmailService emailService;
+    // Failed login counts per account and address
+    private final LoginFailureTracker loginFailureTracker;
+    // Tells other instances to drop their cached copy of a changed user
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     // Constructor
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, 
+    public UserService(UserRepository userRepository, MedicationListVersionRepository listVersionRepository,
+                      PasswordHashingService passwordHashingService,
                       JwtUtil jwtUtil, RefreshTokenService refreshTokenService,
                       EmailVerificationService emailVerificationService,
-                      EmailService emailService) {
+                      EmailService emailService, LoginFailureTracker loginFailureTracker,
+                      CacheInvalidationBus cacheInvalidationBus) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.listVersionRepository = listVersionRepository;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
         this.refreshTokenService = refreshTokenService;
         this.emailVerificationService = emailVerificationService;
         this.emailService = emailService;
+        this.loginFailureTracker = loginFailureTracker;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
-    // Register a new user
+    // Register a new user, the user, verification token and queued email commit together
+    @Transactional
     public User registerUser(RegisterRequest request) { //register request dto from controller
         // Basic validation (to be improved with real email validation)
          if(!request.getEmail().contains("@")) {
@@ -62,10 +78,11 @@ public class UserService {
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         // Hash the password before saving
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.hash(request.getPassword()));
         user.setEmailVerified(false); // Email not verified yet
 
         User savedUser = userRepository.save(user);
+        listVersionRepository.save(new MedicationListVersion(savedUser.getId()));
         log.info("User registered successfully: {}", savedUser.getEmail());
         
         // Send verification email
@@ -74,27 +91,53 @@ public class UserService {
         return savedUser;
     }
 
-    // Authenticate user during login
-    public User authenticateUser(String email, String password) { // email and password from login request dto, passed from controller
+    // Authenticate user during login, clientIp may be null when the caller has no request.
+    // Accounts and addresses with too many recent failures are rejected before any hashing
+    public User authenticateUser(String email, String password, String clientIp) { // email and password from login request dto, passed from controller
+        loginFailureTracker.checkAllowed(email, clientIp);
+
         // Find user by email
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.warn("Failed login attempt for email: {}", email);
-                    return new IllegalArgumentException("Invalid email or password");
-                });
-        
+        Optional<User> found = userRepository.findByEmail(email);
+        if (found.isEmpty()) {
+            // pay the same BCrypt cost as a real account so timing does not reveal registered emails
+            passwordHashingService.simulateMatch(password);
+            loginFailureTracker.recordFailure(email, clientIp);
+            log.warn("Failed login attempt for email: {}", email);
+            throw new IllegalArgumentException("Invalid email or password");
+        }
+        User user = found.get();
+
         // Check if password matches
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
+            loginFailureTracker.recordFailure(email, clientIp);
             log.warn("Failed login attempt - incorrect password for email: {}", email);
             throw new IllegalArgumentException("Invalid email or password");
         }
+        loginFailureTracker.recordSuccess(email);
+        upgradeHashIfNeeded(user, password);
         log.info("User authenticated successfully: {}", email);
         return user;
     }
 
+    // Rehashes a password stored with an older work factor while the raw password is at hand
+    private void upgradeHashIfNeeded(User user, String password) {
+        if (!passwordHashingService.needsUpgrade(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHashingService.hash(password));
+            userRepository.save(user);
+            cacheInvalidationBus.userChanged(user.getId());
+            log.info("Upgraded password hash for user: {}", user.getEmail());
+        } catch (PasswordHashingBusyException e) {
+            // the login itself succeeded, the upgrade waits for a quieter moment
+            log.debug("Skipped password hash upgrade for user {}, hashing is busy", user.getEmail());
+        }
+    }
+
     // Login user and generate JWT token
-    public AuthResponse loginAndGenerateToken(String email, String password) {
-        User user = authenticateUser(email, password);
+    public AuthResponse loginAndGenerateToken(String email, String password, String clientIp) {
+        User user = authenticateUser(email, password, clientIp);
         
         // Check if email is verified
         if (!user.isEmailVerified()) {
@@ -111,18 +154,19 @@ public class UserService {
     }
 
     // Change user password
-    public void changePassword(String email, String currentPassword, String newPassword) {
-        User user = userRepository.findByEmail(email)
+    public User changePassword(Long userId, String currentPassword, String newPassword) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
         // Verify current password
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(currentPassword, user.getPassword())) {
             throw new IllegalArgumentException("Current password is incorrect");
         }
         
         // Update to new password
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.hash(newPassword));
         userRepository.save(user);
+        cacheInvalidationBus.userChanged(user.getId());
         
         // Send password change notification email
         try {
@@ -131,7 +175,8 @@ public class UserService {
             log.warn("Failed to send password change notification email: {}", e.getMessage());
         }
         
-        log.info("Password changed for user: {}", email);
+        log.info("Password changed for user: {}", user.getEmail());
+        return user;
     }
 
     // Find user by email
@@ -142,13 +187,16 @@ public class UserService {
 
     // Update user entity
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        cacheInvalidationBus.userChanged(saved.getId());
+        return saved;
     }
 
     // Update password (for password reset)
     public void updatePassword(User user, String newPassword) {
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashingService.hash(newPassword));
         userRepository.save(user);
+        cacheInvalidationBus.userChanged(user.getId());
         log.info("Password updated for user: {}", user.getEmail());
     }
 }
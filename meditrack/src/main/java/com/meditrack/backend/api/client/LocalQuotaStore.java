@@ -0,0 +1,38 @@
+package com.meditrack.backend.api.client;
+
+import java.util.function.LongSupplier;
+
+// In-process stand-in for the shared bucket, for a single instance or when the shared store is
+// unreachable. Only correct cluster-wide when this is the only instance
+final class LocalQuotaStore implements QuotaStore {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long updatedNanos;
+
+    LocalQuotaStore(double capacity, double refillPerSecond, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.updatedNanos = nanoClock.getAsLong();
+    }
+
+    @Override
+    public synchronized long lease(int wanted) {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - updatedNanos) * refillPerNano);
+        updatedNanos = now;
+        long granted = Math.min(wanted, (long) Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    @Override
+    public synchronized double remaining() {
+        return tokens;
+    }
+}
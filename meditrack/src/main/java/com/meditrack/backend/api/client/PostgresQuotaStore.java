@@ -0,0 +1,106 @@
+package com.meditrack.backend.api.client;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import javax.sql.DataSource;
+
+// The shared bucket as one row of upstream_quota (V4 migration), so every instance draws from the
+// same budget. A lease locks the row, refills it for the time since the last lease using the
+// database clock (instance clocks may disagree), takes what it can and commits, all in one short
+// transaction. Instances lease a few permits at a time, so this runs once per batch, not per call.
+// Waiting for the row lock and each statement are bounded by timeoutMillis, so a slow database
+// fails the lease instead of stalling every upstream call behind it
+final class PostgresQuotaStore implements QuotaStore {
+
+    private static final String INSERT = "INSERT INTO upstream_quota (name, tokens, updated_at) VALUES (?, ?, clock_timestamp()) ON CONFLICT (name) DO NOTHING";
+    private static final String SELECT = "SELECT tokens, updated_at, clock_timestamp() FROM upstream_quota WHERE name = ? FOR UPDATE";
+    private static final String UPDATE = "UPDATE upstream_quota SET tokens = ?, updated_at = ? WHERE name = ?";
+
+    private final DataSource dataSource;
+    private final String name;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final long timeoutMillis;
+
+    private volatile double remaining;
+
+    PostgresQuotaStore(DataSource dataSource, String name, double capacity, double refillPerSecond, long timeoutMillis) {
+        this.dataSource = dataSource;
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.timeoutMillis = Math.max(1, timeoutMillis);
+        this.remaining = capacity;
+    }
+
+    // Creates the bucket full on first use, a no-op once any instance has done so
+    void ensureBucket() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            insert.setString(1, name);
+            insert.setDouble(2, capacity);
+            insert.executeUpdate();
+        }
+    }
+
+    @Override
+    public long lease(int wanted) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    // SET LOCAL takes no bind parameters, the value is a number we built
+                    statement.execute("SET LOCAL lock_timeout = " + timeoutMillis);
+                    statement.execute("SET LOCAL statement_timeout = " + timeoutMillis);
+                }
+                long granted = lease(connection, wanted);
+                connection.commit();
+                return granted;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private long lease(Connection connection, int wanted) throws SQLException {
+        double tokens;
+        Timestamp updatedAt;
+        Timestamp now;
+        try (PreparedStatement select = connection.prepareStatement(SELECT)) {
+            select.setString(1, name);
+            try (ResultSet row = select.executeQuery()) {
+                if (!row.next()) {
+                    throw new SQLException("No upstream_quota row for " + name);
+                }
+                tokens = row.getDouble(1);
+                updatedAt = row.getTimestamp(2);
+                now = row.getTimestamp(3);
+            }
+        }
+        double elapsedSeconds = Math.max(0, now.getTime() - updatedAt.getTime()) / 1000d;
+        double refilled = Math.min(capacity, tokens + elapsedSeconds * refillPerSecond);
+        long granted = Math.min(wanted, (long) Math.floor(refilled));
+        try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            update.setDouble(1, refilled - granted);
+            update.setTimestamp(2, now);
+            update.setString(3, name);
+            update.executeUpdate();
+        }
+        remaining = refilled - granted;
+        return granted;
+    }
+
+    @Override
+    public double remaining() {
+        return remaining;
+    }
+}
@@ -0,0 +1,13 @@
+package com.meditrack.backend.api.client;
+
+import java.sql.SQLException;
+
+// Where the shared upstream token bucket lives, see UpstreamQuotaGovernor
+interface QuotaStore {
+
+    // Takes up to `wanted` whole permits from the bucket and returns how many were granted, 0 when empty
+    long lease(int wanted) throws SQLException;
+
+    // Permits left in the bucket as of the last lease
+    double remaining();
+}
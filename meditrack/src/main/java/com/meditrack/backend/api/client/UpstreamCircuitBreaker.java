@@ -0,0 +1,198 @@
+package com.meditrack.backend.api.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Circuit breaker for the drug label upstream. Outcomes of the last window-size calls are kept
+// in a ring buffer; once enough calls were seen and either the failure rate or the slow call
+// rate reaches its threshold the breaker opens and calls fail fast for open-ms. After that a
+// few trial calls are let through (half-open): all succeeding closes it, any failure reopens.
+// Metrics: upstream.circuit.state (0 closed, 1 half-open, 2 open),
+// upstream.circuit.transitions{from,to} and upstream.circuit.rejected
+@Component
+public class UpstreamCircuitBreaker implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final int slowRatePercent;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // Sliding window, guarded by this
+    private final byte[] window;
+    private int windowNext;
+    private int windowCount;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder rejected = new LongAdder();
+    // Indexed by from.ordinal() * 3 + to.ordinal()
+    private final AtomicLongArray transitions = new AtomicLongArray(9);
+
+    public UpstreamCircuitBreaker(@Value("${upstream.circuit.window-size:20}") int windowSize,
+                                  @Value("${upstream.circuit.minimum-calls:10}") int minimumCalls,
+                                  @Value("${upstream.circuit.failure-rate-percent:50}") int failureRatePercent,
+                                  @Value("${upstream.circuit.slow-call-ms:2000}") long slowCallMillis,
+                                  @Value("${upstream.circuit.slow-rate-percent:80}") int slowRatePercent,
+                                  @Value("${upstream.circuit.open-ms:30000}") long openMillis,
+                                  @Value("${upstream.circuit.half-open-calls:3}") int halfOpenCalls) {
+        this.window = new byte[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.slowRatePercent = slowRatePercent;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // Whether a call may go upstream now. Every true must be followed by exactly one of
+    // onSuccess, onFailure or onIgnored so half-open trial slots are handed back
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                rejected.increment();
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                rejected.increment();
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    // The call answered, slow answers count against the slow call rate
+    public synchronized void onSuccess(long elapsedNanos) {
+        record(elapsedNanos >= slowCallNanos ? SLOW : SUCCESS);
+    }
+
+    public synchronized void onFailure() {
+        record(FAILURE);
+    }
+
+    // The call ended without telling us anything about upstream health (e.g. rejected locally)
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void record(byte outcome) {
+        if (state == State.HALF_OPEN) {
+            if (outcome != SUCCESS) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return; // started before the breaker opened, says nothing new
+        }
+        if (windowCount == window.length) {
+            forget(window[windowNext]);
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = outcome;
+        windowNext = (windowNext + 1) % window.length;
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+        if (windowCount >= minimumCalls
+                && (failures * 100 >= failureRatePercent * windowCount || slowCalls * 100 >= slowRatePercent * windowCount)) {
+            log.warn("Upstream circuit opening: {} failed and {} slow of the last {} calls", failures, slowCalls, windowCount);
+            open();
+        }
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        if (from == to) {
+            return;
+        }
+        state = to;
+        transitions.incrementAndGet(from.ordinal() * 3 + to.ordinal());
+        log.info("Upstream circuit {} -> {}", from, to);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("upstream.circuit.state", this, b -> b.state.ordinal())
+                .description("0 closed, 1 half-open, 2 open").register(registry);
+        FunctionCounter.builder("upstream.circuit.rejected", rejected, LongAdder::sum)
+                .description("Calls failed fast without going upstream").register(registry);
+        for (State from : State.values()) {
+            for (State to : State.values()) {
+                if (from != to) {
+                    int slot = from.ordinal() * 3 + to.ordinal();
+                    FunctionCounter.builder("upstream.circuit.transitions", transitions, t -> t.get(slot))
+                            .tag("from", from.name().toLowerCase())
+                            .tag("to", to.name().toLowerCase())
+                            .register(registry);
+                }
+            }
+        }
+    }
+}
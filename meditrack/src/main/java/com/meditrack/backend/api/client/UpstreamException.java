@@ -0,0 +1,41 @@
+package com.meditrack.backend.api.client;
+
+// Failure of an upstream HTTP call, carries why it failed and the status code when there was one
+public class UpstreamException extends RuntimeException {
+
+    public enum Reason {
+        HTTP_STATUS,    // upstream answered with a non-2xx status
+        TIMEOUT,        // per-call deadline exceeded
+        TOO_LARGE,      // response body over the configured size limit
+        REJECTED,       // no connection slot freed up in time
+        CIRCUIT_OPEN,   // circuit breaker is failing fast, no call was made
+        QUOTA,          // cluster-wide upstream quota used up, no call was made
+        IO              // connection or protocol error
+    }
+
+    private final Reason reason;
+    private final int statusCode;
+
+    public UpstreamException(Reason reason, String message) {
+        this(reason, 0, message, null);
+    }
+
+    public UpstreamException(Reason reason, int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+        this.statusCode = statusCode;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    // 0 when the failure happened before a status line was received
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isNotFound() {
+        return reason == Reason.HTTP_STATUS && statusCode == 404;
+    }
+}
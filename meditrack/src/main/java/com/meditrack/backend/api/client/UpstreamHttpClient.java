@@ -0,0 +1,237 @@
+package com.meditrack.backend.api.client;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Shared HTTP client for third-party APIs (OpenFDA today). Wraps the JDK HttpClient, which
+// negotiates HTTP/2 and keeps connections alive and reused per host. On top of it this adds
+// a bounded number of concurrent calls, a hard per-call deadline covering headers and body,
+// and a response size cap, so a slow or misbehaving upstream cannot pin request threads.
+// Metrics: upstream.http.requests (timer by host/outcome) and upstream.http.pool.* gauges
+@Component
+public class UpstreamHttpClient {
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final Duration defaultDeadline;
+    private final long acquireTimeoutMillis;
+    private final long maxResponseBytes;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public UpstreamHttpClient(MeterRegistry meterRegistry,
+                              @Value("${upstream.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                              @Value("${upstream.http.deadline-ms:5000}") long deadlineMillis,
+                              @Value("${upstream.http.max-concurrent:32}") int maxConcurrent,
+                              @Value("${upstream.http.acquire-timeout-ms:250}") long acquireTimeoutMillis,
+                              @Value("${upstream.http.max-response-bytes:5242880}") long maxResponseBytes) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrent = maxConcurrent;
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.defaultDeadline = Duration.ofMillis(deadlineMillis);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.maxResponseBytes = maxResponseBytes;
+        // Small fixed pool for the client's async plumbing instead of its default unbounded one
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "upstream-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2) // falls back to HTTP/1.1 keep-alive when not offered
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+
+        Gauge.builder("upstream.http.pool.active", active, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("upstream.http.pool.available", slots, Semaphore::availablePermits).register(meterRegistry);
+        Gauge.builder("upstream.http.pool.pending", slots, Semaphore::getQueueLength).register(meterRegistry);
+        Gauge.builder("upstream.http.pool.max", this, c -> c.maxConcurrent).register(meterRegistry);
+    }
+
+    // GET with the default deadline
+    public byte[] get(URI uri) {
+        return get(uri, defaultDeadline);
+    }
+
+    // GET returning the whole body, throws UpstreamException for non-2xx and every failure
+    public byte[] get(URI uri, Duration deadline) {
+        long start = System.nanoTime();
+        String outcome = "io_error";
+        try {
+            acquireSlot(uri);
+            active.incrementAndGet();
+            try {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(deadline)
+                        .header("Accept", "application/json")
+                        .GET()
+                        .build();
+                CompletableFuture<HttpResponse<byte[]>> call = client.sendAsync(request, this::limitedBody);
+                HttpResponse<byte[]> response = await(call, uri, deadline);
+                int status = response.statusCode();
+                if (status < 200 || status >= 300) {
+                    outcome = status < 500 ? "client_error" : "server_error";
+                    throw new UpstreamException(UpstreamException.Reason.HTTP_STATUS, status,
+                            "Upstream " + uri.getHost() + " answered " + status, null);
+                }
+                outcome = "success";
+                return response.body();
+            } finally {
+                active.decrementAndGet();
+                slots.release();
+            }
+        } catch (UpstreamException e) {
+            if (e.getReason() != UpstreamException.Reason.HTTP_STATUS) {
+                outcome = e.getReason().name().toLowerCase();
+            }
+            throw e;
+        } finally {
+            Timer.builder("upstream.http.requests")
+                    .tag("host", String.valueOf(uri.getHost()))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void acquireSlot(URI uri) {
+        try {
+            if (!slots.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new UpstreamException(UpstreamException.Reason.REJECTED,
+                        "All " + maxConcurrent + " upstream slots busy for " + uri.getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamException(UpstreamException.Reason.REJECTED, 0, "Interrupted waiting for an upstream slot", e);
+        }
+    }
+
+    // Waits for the full exchange, the request timeout alone does not cover reading the body
+    private static <T> T await(CompletableFuture<T> call, URI uri, Duration deadline) {
+        try {
+            return call.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            throw new UpstreamException(UpstreamException.Reason.TIMEOUT, 0,
+                    "Upstream " + uri.getHost() + " exceeded " + deadline.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UpstreamException(UpstreamException.Reason.IO, 0, "Interrupted calling " + uri.getHost(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // The client may wrap a failure raised by our body subscriber
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                if (t instanceof UpstreamException upstream) {
+                    throw upstream;
+                }
+            }
+            UpstreamException.Reason reason = cause instanceof HttpTimeoutException
+                    ? UpstreamException.Reason.TIMEOUT : UpstreamException.Reason.IO;
+            throw new UpstreamException(reason, 0, "Upstream call to " + uri.getHost() + " failed: " + cause, cause);
+        }
+    }
+
+    // Rejects oversized bodies up front via Content-Length, and while streaming otherwise
+    private HttpResponse.BodySubscriber<byte[]> limitedBody(HttpResponse.ResponseInfo info) {
+        long declared = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return new LimitedBodySubscriber(maxResponseBytes, declared);
+    }
+
+    // Collects the body and cancels the stream as soon as it grows past the limit
+    private static final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final long limit;
+        private final long declaredLength;
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        private Flow.Subscription subscription;
+
+        LimitedBodySubscriber(long limit, long declaredLength) {
+            this.limit = limit;
+            this.declaredLength = declaredLength;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (declaredLength > limit) {
+                tooLarge();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (body.isDone()) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                if (buffer.size() + (long) item.remaining() > limit) {
+                    tooLarge();
+                    return;
+                }
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                buffer.write(chunk, 0, chunk.length);
+            }
+        }
+
+        private void tooLarge() {
+            subscription.cancel();
+            body.completeExceptionally(new UpstreamException(UpstreamException.Reason.TOO_LARGE,
+                    "Upstream response exceeded " + limit + " bytes"));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(buffer.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.meditrack.backend.api.client;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Keeps every instance together under the upstream API key's quota with one token bucket shared
+// through Postgres (PostgresQuotaStore). Each upstream call takes a permit first. Permits are
+// leased from the shared bucket a few at a time and handed out locally, so the database sees one
+// short transaction per batch. When the bucket is empty a caller waits up to max-wait-ms for it
+// to refill, then gets UpstreamException(QUOTA) without a call being made, and the caller serves
+// from the cache as for any other upstream failure.
+// On other databases (H2 in development and tests) the bucket is kept in process. Trips to the
+// shared store are bounded by max-wait-ms. If one fails, the in-process bucket takes over for
+// store-retry-ms before the shared store is tried again, with one log line per switch.
+//   upstream.quota.capacity        burst size, in calls
+//   upstream.quota.per-minute      sustained calls per minute across all instances
+//   upstream.quota.lease-size      permits leased per trip to the shared store
+//   upstream.quota.max-wait-ms     how long a call may wait for the bucket to refill
+//   upstream.quota.store-retry-ms  how long to stay on the in-process bucket after a store failure
+// Meters: upstream.quota.remaining, upstream.quota.granted, upstream.quota.exhausted,
+// upstream.quota.waited, upstream.quota.store.errors
+@Component
+public class UpstreamQuotaGovernor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamQuotaGovernor.class);
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final String name;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final int leaseSize;
+    private final long maxWaitNanos;
+    private final long pollMillis;
+    private final long storeRetryNanos;
+    private final LongSupplier nanoClock;
+
+    private final LocalQuotaStore local;
+    private volatile QuotaStore shared;
+    // Permits leased by this instance and not yet used
+    private final AtomicLong leased = new AtomicLong();
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    // Set while the shared store is skipped after a failure, only read and written under leaseLock
+    private boolean storeDown;
+    private long storeRetryAt;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder storeErrors = new LongAdder();
+
+    @Autowired
+    public UpstreamQuotaGovernor(DataSource dataSource,
+                                 @Value("${upstream.quota.enabled:true}") boolean enabled,
+                                 @Value("${upstream.quota.name:openfda}") String name,
+                                 @Value("${upstream.quota.capacity:240}") int capacity,
+                                 @Value("${upstream.quota.per-minute:240}") int perMinute,
+                                 @Value("${upstream.quota.lease-size:4}") int leaseSize,
+                                 @Value("${upstream.quota.max-wait-ms:250}") long maxWaitMillis,
+                                 @Value("${upstream.quota.store-retry-ms:30000}") long storeRetryMillis) {
+        this(dataSource, enabled, name, capacity, perMinute, leaseSize, maxWaitMillis, storeRetryMillis, System::nanoTime);
+    }
+
+    UpstreamQuotaGovernor(DataSource dataSource, boolean enabled, String name, int capacity, int perMinute,
+                          int leaseSize, long maxWaitMillis, long storeRetryMillis, LongSupplier nanoClock) {
+        if (capacity < 1 || perMinute < 1 || leaseSize < 1) {
+            throw new IllegalArgumentException("Upstream quota capacity, per-minute and lease-size must all be positive");
+        }
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerSecond = perMinute / 60d;
+        this.leaseSize = Math.min(leaseSize, capacity);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.storeRetryNanos = TimeUnit.MILLISECONDS.toNanos(storeRetryMillis);
+        // Roughly the time one permit takes to refill, within sensible bounds
+        this.pollMillis = Math.max(10, Math.min(100, (long) (1000 / refillPerSecond)));
+        this.nanoClock = nanoClock;
+        this.local = new LocalQuotaStore(capacity, refillPerSecond, nanoClock);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                log.info("Upstream quota {} kept in process, the database is not Postgres", name);
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Upstream quota {} kept in process, could not reach the database: {}", name, e.getMessage());
+            return;
+        }
+        PostgresQuotaStore store = new PostgresQuotaStore(dataSource, name, capacity, refillPerSecond,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        try {
+            store.ensureBucket();
+            shareThrough(store);
+            log.info("Upstream quota {} shared through Postgres, {} per minute", name, Math.round(refillPerSecond * 60));
+        } catch (SQLException e) {
+            log.warn("Upstream quota {} kept in process, could not create the shared bucket: {}", name, e.getMessage());
+        }
+    }
+
+    // Takes one permit for an upstream call, waiting briefly for a refill when the bucket is empty.
+    // Throws UpstreamException(QUOTA) when none frees up in time
+    public void acquire() {
+        if (!enabled) {
+            return;
+        }
+        long deadline = nanoClock.getAsLong() + maxWaitNanos;
+        boolean hadToWait = false;
+        try {
+            while (true) {
+                if (tryAcquire(deadline)) {
+                    granted.increment();
+                    if (hadToWait) {
+                        waited.increment();
+                    }
+                    return;
+                }
+                long remaining = deadline - nanoClock.getAsLong();
+                if (remaining <= 0) {
+                    break;
+                }
+                hadToWait = true;
+                Thread.sleep(Math.min(pollMillis, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamException(UpstreamException.Reason.REJECTED, 0, "Interrupted waiting for upstream quota", e);
+        }
+        exhausted.increment();
+        throw new UpstreamException(UpstreamException.Reason.QUOTA, "Upstream quota " + name + " used up");
+    }
+
+    private boolean tryAcquire(long deadline) throws InterruptedException {
+        if (takeLeased()) {
+            return true;
+        }
+        // One thread leases at a time, the others wait for its batch
+        long lockWait = Math.max(0, deadline - nanoClock.getAsLong());
+        if (!leaseLock.tryLock(lockWait, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        try {
+            if (takeLeased()) {
+                return true;
+            }
+            long got = lease();
+            if (got == 0) {
+                return false;
+            }
+            leased.addAndGet(got - 1); // one is used right away
+            return true;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private boolean takeLeased() {
+        long available;
+        do {
+            available = leased.get();
+            if (available <= 0) {
+                return false;
+            }
+        } while (!leased.compareAndSet(available, available - 1));
+        return true;
+    }
+
+    // Called under leaseLock
+    private long lease() {
+        QuotaStore store = shared;
+        if (store != null && (!storeDown || nanoClock.getAsLong() - storeRetryAt >= 0)) {
+            try {
+                long got = store.lease(leaseSize);
+                if (storeDown) {
+                    storeDown = false;
+                    log.info("Upstream quota {} store answering again, back on the shared bucket", name);
+                }
+                return got;
+            } catch (SQLException e) {
+                storeErrors.increment();
+                storeRetryAt = nanoClock.getAsLong() + storeRetryNanos;
+                if (!storeDown) {
+                    storeDown = true;
+                    log.warn("Upstream quota {} store failed, using the in-process bucket for {} ms between retries: {}",
+                            name, TimeUnit.NANOSECONDS.toMillis(storeRetryNanos), e.getMessage());
+                }
+            }
+        }
+        return local.lease(leaseSize);
+    }
+
+    // The shared bucket every lease goes to first
+    void shareThrough(QuotaStore store) {
+        this.shared = store;
+    }
+
+    // Permits left in the bucket as of the last lease, plus those leased here and not yet used
+    double remaining() {
+        QuotaStore store = shared;
+        return (store != null ? store.remaining() : local.remaining()) + leased.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("upstream.quota.remaining", this, UpstreamQuotaGovernor::remaining).tag("quota", name).register(registry);
+        FunctionCounter.builder("upstream.quota.granted", granted, LongAdder::sum).tag("quota", name).register(registry);
+        FunctionCounter.builder("upstream.quota.exhausted", exhausted, LongAdder::sum).tag("quota", name).register(registry);
+        FunctionCounter.builder("upstream.quota.waited", waited, LongAdder::sum).tag("quota", name).register(registry);
+        FunctionCounter.builder("upstream.quota.store.errors", storeErrors, LongAdder::sum).tag("quota", name).register(registry);
+    }
+}
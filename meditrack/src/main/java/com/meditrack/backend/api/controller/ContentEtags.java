@@ -0,0 +1,50 @@
+package com.meditrack.backend.api.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.meditrack.backend.api.dto.DrugSummary;
+
+// Strong ETags from a hash of the response content. Fields are hashed straight from the DTOs,
+// length-prefixed so adjacent values cannot run together, without serializing them twice
+final class ContentEtags {
+
+    private ContentEtags() {
+    }
+
+    static String ofSummaries(List<DrugSummary> summaries) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(summaries.size());
+        for (DrugSummary summary : summaries) {
+            put(hasher, summary.getBrandName());
+            put(hasher, summary.getGenericName());
+            put(hasher, summary.getPurpose());
+            put(hasher, summary.getRoute());
+            put(hasher, summary.getRxcui());
+        }
+        return quote(hasher);
+    }
+
+    static String ofStrings(List<String> values) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(values.size());
+        for (String value : values) {
+            put(hasher, value);
+        }
+        return quote(hasher);
+    }
+
+    private static void put(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+            return;
+        }
+        hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+    }
+
+    private static String quote(Hasher hasher) {
+        return "\"" + hasher.hash() + "\"";
+    }
+}
@@ -1,27 +1,142 @@
 package com.meditrack.backend.api.controller;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.meditrack.backend.api.dto.DrugResult;
+import com.meditrack.backend.api.dto.DrugSection;
+import com.meditrack.backend.api.dto.DrugSummary;
+import com.meditrack.backend.api.service.DrugSearchOutcome;
+import com.meditrack.backend.api.service.DrugSpellingService;
+import com.meditrack.backend.api.service.DrugSuggestService;
 import com.meditrack.backend.api.service.OpenFdaDrugService;
+import com.meditrack.backend.config.HttpCachePolicy;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 // REST controller for drug search endpoints via OpenFDA API
 @RestController
 @RequestMapping("/api/drugs")
 public class DrugSearchController {
+
+    // Set when upstream is unavailable: "stale" for last known results, "unavailable" for none
+    public static final String DEGRADED_HEADER = "X-Drug-Search-Degraded";
+
+    // Upper bound on one batch lookup, a user's medication list is far smaller
+    private static final int MAX_BATCH_SIZE = 100;
+
+    // Label sections served by /{rxcui}/sections/{name}, too long to send with every search result
+    private static final Map<String, Function<DrugResult, String>> SECTIONS = Map.of(
+            "indications", DrugResult::getIndications,
+            "warnings", DrugResult::getWarnings,
+            "side-effects", DrugResult::getSideEffects,
+            "dosage", DrugResult::getDosage);
     
     private final OpenFdaDrugService drugService;
+    private final DrugSuggestService suggestService;
+    private final DrugSpellingService spellingService;
+    // Per-route Cache-Control, configurable under http.cache.<route>.*
+    private final HttpCachePolicy cachePolicy;
 
-    // Constructor injection of the drug service
-    public DrugSearchController(OpenFdaDrugService drugService) {
+    // Constructor injection of the drug services
+    public DrugSearchController(OpenFdaDrugService drugService, DrugSuggestService suggestService,
+                                DrugSpellingService spellingService, HttpCachePolicy cachePolicy) {
         this.drugService = drugService;
+        this.suggestService = suggestService;
+        this.spellingService = spellingService;
+        this.cachePolicy = cachePolicy;
     }
 
+    // Cacheable by browsers and CDNs. A matching If-None-Match gets a 304 from Spring, since the
+    // response carries an ETag. Degraded answers are revalidated (stale) or never stored (unavailable).
+    // Results are summaries, the long label sections are fetched on demand from /{rxcui}/sections/{name}
     @GetMapping("/search")
-    public List<DrugResult> search(@RequestParam String name) {
-        return drugService.searchDrug(name);
+    public ResponseEntity<List<DrugSummary>> search(@RequestParam String name) {
+        DrugSearchOutcome outcome = drugService.search(name);
+        List<DrugSummary> summaries = outcome.getResults().stream().map(DrugSummary::of).toList();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        switch (outcome.getStatus()) {
+            case FRESH -> response.cacheControl(cachePolicy.forRoute("drug-search", 300, 3600));
+            case STALE -> response.cacheControl(CacheControl.noCache().cachePublic());
+            case UNAVAILABLE -> response.cacheControl(CacheControl.noStore());
+        }
+        if (outcome.isDegraded()) {
+            response.header(DEGRADED_HEADER, outcome.getStatus().name().toLowerCase());
+        }
+        if (outcome.getStatus() != DrugSearchOutcome.Status.UNAVAILABLE) {
+            response.eTag(ContentEtags.ofSummaries(summaries));
+        }
+        return response.body(summaries);
+    }
+
+    // One label section of a drug, e.g. /api/drugs/5640/sections/warnings. Sections of a label
+    // rarely change, so they are cached far longer than search results. A section served from
+    // the stale fallback while upstream is down is never stored, so no cache keeps it for a day
+    @GetMapping("/{rxcui}/sections/{section}")
+    public ResponseEntity<DrugSection> section(@PathVariable String rxcui, @PathVariable String section) {
+        Function<DrugResult, String> extractor = SECTIONS.get(section);
+        if (extractor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        DrugSearchOutcome outcome = drugService.lookupOneByRxcui(rxcui);
+        if (outcome.getStatus() == DrugSearchOutcome.Status.UNAVAILABLE) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .cacheControl(CacheControl.noStore())
+                    .header(DEGRADED_HEADER, "unavailable")
+                    .build();
+        }
+        DrugResult drug = outcome.getResults().isEmpty() ? null : outcome.getResults().get(0);
+        String text = drug == null ? null : extractor.apply(drug);
+        if (text == null || text.isBlank()) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(ContentEtags.ofStrings(List.of(rxcui, section, text)));
+        if (outcome.isDegraded()) {
+            response.cacheControl(CacheControl.noStore()).header(DEGRADED_HEADER, "stale");
+        } else {
+            response.cacheControl(cachePolicy.forRoute("drug-section", 86400, 604800));
+        }
+        return response.body(new DrugSection(rxcui, section, text));
+    }
+
+    // Label details for a list of RxCUIs in one call, e.g. for every medication a user tracks.
+    // Answers {rxcui: drug} in request order, unknown RxCUIs are left out. Signed-in users only,
+    // and only openfda.batch.max-upstream of the uncached RxCUIs go upstream per request
+    @PostMapping("/by-rxcui")
+    public ResponseEntity<?> byRxcui(@RequestBody List<String> rxcuis) {
+        if (rxcuis.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_SIZE + " RxCUIs per request");
+        }
+        Map<String, DrugResult> drugs = drugService.lookupByRxcui(rxcuis);
+        return ResponseEntity.ok(drugs);
+    }
+
+    // Corrections for a misspelled drug name, e.g. after a search came back empty
+    @GetMapping("/did-you-mean")
+    public ResponseEntity<List<String>> didYouMean(@RequestParam String name) {
+        List<String> corrections = spellingService.didYouMean(name);
+        return ResponseEntity.ok()
+                .cacheControl(cachePolicy.forRoute("drug-did-you-mean", 600, 3600))
+                .eTag(ContentEtags.ofStrings(corrections))
+                .body(corrections);
+    }
+
+    // Autocomplete for drug names, answered locally so it is cheap enough for every keystroke
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix) {
+        List<String> suggestions = suggestService.suggest(prefix);
+        return ResponseEntity.ok()
+                .cacheControl(cachePolicy.forRoute("drug-suggest", 3600, 86400))
+                .eTag(ContentEtags.ofStrings(suggestions))
+                .body(suggestions);
     }
 }
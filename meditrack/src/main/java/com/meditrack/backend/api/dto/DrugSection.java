@@ -0,0 +1,26 @@
+package com.meditrack.backend.api.dto;
+
+// One long label section of a drug, e.g. its warnings
+public class DrugSection {
+
+    private final String rxcui;
+    private final String name;
+    private final String text;
+
+    public DrugSection(String rxcui, String name, String text) {
+        this.rxcui = rxcui;
+        this.name = name;
+        this.text = text;
+    }
+
+    // Getters
+    public String getRxcui() {
+        return rxcui;
+    }
+    public String getName() {
+        return name;
+    }
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,43 @@
+package com.meditrack.backend.api.dto;
+
+// Compact drug search result: names, route, rxcui and purpose only. The long label
+// sections are fetched one at a time via /api/drugs/{rxcui}/sections/{name}
+public class DrugSummary {
+
+    private String brandName;
+    private String genericName;
+    private String purpose;
+    private String route; // e.g., oral, intravenous
+    private String rxcui;
+
+    public DrugSummary() {
+    }
+
+    // Summary of a full result, drops the label sections
+    public static DrugSummary of(DrugResult result) {
+        DrugSummary summary = new DrugSummary();
+        summary.brandName = result.getBrandName();
+        summary.genericName = result.getGenericName();
+        summary.purpose = result.getPurpose();
+        summary.route = result.getRoute();
+        summary.rxcui = result.getRxcui();
+        return summary;
+    }
+
+    // Getters
+    public String getBrandName() {
+        return brandName;
+    }
+    public String getGenericName() {
+        return genericName;
+    }
+    public String getPurpose() {
+        return purpose;
+    }
+    public String getRoute() {
+        return route;
+    }
+    public String getRxcui() {
+        return rxcui;
+    }
+}
@@ -0,0 +1,40 @@
+package com.meditrack.backend.api.service;
+
+import java.util.List;
+
+import com.meditrack.backend.api.dto.DrugResult;
+
+// A cached search result plus the timestamps that drive its expiry
+final class CachedDrugSearch {
+
+    private final List<DrugResult> results;
+    private final long writtenAt;
+    private final long expiresAt;
+
+    CachedDrugSearch(List<DrugResult> results, long writtenAt, long expiresAt) {
+        this.results = List.copyOf(results);
+        this.writtenAt = writtenAt;
+        this.expiresAt = expiresAt;
+    }
+
+    List<DrugResult> getResults() {
+        return results;
+    }
+
+    long getWrittenAt() {
+        return writtenAt;
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    // Empty results are cached too (negative caching) but with a shorter TTL
+    boolean isNegative() {
+        return results.isEmpty();
+    }
+
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
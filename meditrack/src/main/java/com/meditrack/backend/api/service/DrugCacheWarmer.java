@@ -0,0 +1,206 @@
+package com.meditrack.backend.api.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.meditrack.backend.api.client.UpstreamCircuitBreaker;
+import com.meditrack.backend.repository.UserMedicationRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+// Keeps the drug search cache warm for drugs users actually track. A warming run walks the
+// tracked drugs most-tracked first and looks up each one by name and RxCUI that is not already
+// answered locally, at most permits-per-second upstream lookups. Runs once after startup
+// (off the readiness path) and then every interval-ms, and newly added medications are
+// prefetched right away. Progress: /actuator/drugcachewarmer and drug.cache.warmer.* meters
+@Component
+public class DrugCacheWarmer implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugCacheWarmer.class);
+
+    private final OpenFdaDrugService drugService;
+    private final UserMedicationRepository userMedicationRepository;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final int maxDrugs;
+    private final RateLimiter rateLimiter;
+    // One worker for runs and prefetches alike, so both share the rate limit and never overlap
+    private final ThreadPoolExecutor worker;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile String lastTrigger;
+    private volatile Instant lastStartedAt;
+    private volatile Instant lastFinishedAt;
+    private volatile String lastResult;
+    private final AtomicInteger runTotal = new AtomicInteger();
+    private final AtomicInteger runProcessed = new AtomicInteger();
+    private final LongAdder warmed = new LongAdder();
+    private final LongAdder alreadyWarm = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder prefetchesDropped = new LongAdder();
+
+    public DrugCacheWarmer(OpenFdaDrugService drugService, UserMedicationRepository userMedicationRepository,
+                           UpstreamCircuitBreaker circuitBreaker,
+                           @Value("${openfda.warmer.enabled:true}") boolean enabled,
+                           @Value("${openfda.warmer.max-drugs:500}") int maxDrugs,
+                           @Value("${openfda.warmer.permits-per-second:2}") double permitsPerSecond,
+                           @Value("${openfda.warmer.prefetch-queue:256}") int prefetchQueue) {
+        this.drugService = drugService;
+        this.userMedicationRepository = userMedicationRepository;
+        this.circuitBreaker = circuitBreaker;
+        this.enabled = enabled;
+        this.maxDrugs = maxDrugs;
+        this.rateLimiter = RateLimiter.create(permitsPerSecond);
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(prefetchQueue), r -> {
+            Thread thread = new Thread(r, "drug-cache-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        submitRun("startup");
+    }
+
+    @Scheduled(initialDelayString = "${openfda.warmer.interval-ms:21600000}", fixedDelayString = "${openfda.warmer.interval-ms:21600000}")
+    public void warmOnSchedule() {
+        submitRun("scheduled");
+    }
+
+    // Queues a lookup for a drug a user just started tracking, dropped when the queue is full
+    public void prefetch(String drugName, String rxcui) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                prefetches.increment();
+                warm(drugName, rxcui);
+            });
+        } catch (RejectedExecutionException e) {
+            prefetchesDropped.increment();
+        }
+    }
+
+    // Snapshot for the actuator endpoint
+    public Map<String, Object> progress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("enabled", enabled);
+        progress.put("running", running.get());
+        progress.put("lastTrigger", lastTrigger);
+        progress.put("lastStartedAt", lastStartedAt);
+        progress.put("lastFinishedAt", lastFinishedAt);
+        progress.put("lastResult", lastResult);
+        progress.put("runTotal", runTotal.get());
+        progress.put("runProcessed", runProcessed.get());
+        progress.put("warmed", warmed.sum());
+        progress.put("alreadyWarm", alreadyWarm.sum());
+        progress.put("failed", failed.sum());
+        progress.put("prefetches", prefetches.sum());
+        progress.put("prefetchesDropped", prefetchesDropped.sum());
+        progress.put("queued", worker.getQueue().size());
+        return progress;
+    }
+
+    private void submitRun(String trigger) {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return; // the previous run is still going
+        }
+        try {
+            worker.execute(() -> run(trigger));
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    private void run(String trigger) {
+        lastTrigger = trigger;
+        lastStartedAt = Instant.now();
+        runProcessed.set(0);
+        String result = "completed";
+        try {
+            List<UserMedicationRepository.TrackedDrug> drugs = userMedicationRepository.findTrackedDrugs(PageRequest.of(0, maxDrugs));
+            runTotal.set(drugs.size());
+            for (UserMedicationRepository.TrackedDrug drug : drugs) {
+                if (circuitBreaker.getState() == UpstreamCircuitBreaker.State.OPEN) {
+                    result = "stopped, upstream circuit open";
+                    break;
+                }
+                warm(drug.getDrugName(), drug.getRxcui());
+                runProcessed.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            result = "failed: " + e.getMessage();
+            log.warn("Drug cache warming run failed: {}", e.getMessage(), e);
+        } finally {
+            lastResult = result;
+            lastFinishedAt = Instant.now();
+            running.set(false);
+            log.info("Drug cache warming ({}) {}: {} of {} drugs processed", trigger, result, runProcessed.get(), runTotal.get());
+        }
+    }
+
+    // Counts the drug as failed when either lookup was only answered from stale entries or not
+    // at all, or threw, so neither a run nor a prefetch task ends on an unrecorded exception
+    private void warm(String drugName, String rxcui) {
+        try {
+            if (drugService.isWarm(drugName, rxcui)) {
+                alreadyWarm.increment();
+                return;
+            }
+            rateLimiter.acquire();
+            boolean ok = true;
+            if (drugName != null && !drugName.isBlank()) {
+                ok = !drugService.search(drugName).isDegraded();
+            }
+            if (rxcui != null && !rxcui.isBlank()) {
+                ok &= !drugService.lookupOneByRxcui(rxcui).isDegraded();
+            }
+            (ok ? warmed : failed).increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Warming drug {} ({}) failed: {}", drugName, rxcui, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("drug.cache.warmer.warmed", warmed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.cache.warmer.already.warm", alreadyWarm, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.cache.warmer.failed", failed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.cache.warmer.prefetches", prefetches, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.cache.warmer.prefetches.dropped", prefetchesDropped, LongAdder::sum).register(registry);
+        Gauge.builder("drug.cache.warmer.running", running, r -> r.get() ? 1 : 0).register(registry);
+        Gauge.builder("drug.cache.warmer.queued", worker, w -> w.getQueue().size()).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,24 @@
+package com.meditrack.backend.api.service;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/drugcachewarmer, needs drugcachewarmer in management.endpoints.web.exposure.include
+@Component
+@Endpoint(id = "drugcachewarmer")
+public class DrugCacheWarmerEndpoint {
+
+    private final DrugCacheWarmer warmer;
+
+    public DrugCacheWarmerEndpoint(DrugCacheWarmer warmer) {
+        this.warmer = warmer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return warmer.progress();
+    }
+}
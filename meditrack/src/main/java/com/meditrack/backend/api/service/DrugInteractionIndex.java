@@ -0,0 +1,186 @@
+package com.meditrack.backend.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Immutable index over a drug interaction dataset. Every ingredient gets a dense id, and the
+// interactions form a bitset adjacency matrix (one row of n bits per ingredient, about 0.5 MB for
+// 2,000 ingredients), so checking a pair of ingredients is a single bit test. A medication
+// resolves to the sorted ids of its ingredients, which also makes duplicate-ingredient checks a
+// merge of two short arrays
+final class DrugInteractionIndex {
+
+    enum Severity {
+        MAJOR, MODERATE, MINOR;
+
+        static Severity parse(String value) {
+            return valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    static final class Interaction {
+        final Severity severity;
+        final String description;
+
+        Interaction(Severity severity, String description) {
+            this.severity = severity;
+            this.description = description;
+        }
+    }
+
+    // Separators between the ingredients of a combination product, e.g. "ibuprofen and famotidine"
+    private static final Pattern COMBINATION = Pattern.compile("\\s*(?:,|/|;|\\+|\\band\\b|\\bwith\\b)\\s*");
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> ids;
+    private final String[] names;
+    private final long[][] adjacency;
+    private final Map<Long, Interaction> interactions;
+    private final Map<String, int[]> rxcuiIngredients;
+
+    private DrugInteractionIndex(Map<String, Integer> ids, String[] names, long[][] adjacency,
+                                 Map<Long, Interaction> interactions, Map<String, int[]> rxcuiIngredients) {
+        this.ids = ids;
+        this.names = names;
+        this.adjacency = adjacency;
+        this.interactions = interactions;
+        this.rxcuiIngredients = rxcuiIngredients;
+    }
+
+    static DrugInteractionIndex empty() {
+        return new Builder().build();
+    }
+
+    int ingredientCount() {
+        return names.length;
+    }
+
+    int interactionCount() {
+        return interactions.size();
+    }
+
+    String name(int ingredient) {
+        return names[ingredient];
+    }
+
+    // Sorted ingredient ids of a medication. A mapped RxCUI wins, otherwise each name is matched
+    // as a whole, then split into the parts of a combination product, then with a salt or form
+    // suffix dropped ("sertraline hydrochloride" -> "sertraline")
+    int[] ingredientsOf(String rxcui, Collection<String> names) {
+        if (rxcui != null) {
+            int[] mapped = rxcuiIngredients.get(rxcui.trim());
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        int[] found = new int[4];
+        int count = 0;
+        for (String name : names) {
+            String normalized = DrugQueryNormalizer.normalize(name);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            Integer whole = ids.get(normalized);
+            String[] parts = whole != null ? new String[] { normalized } : COMBINATION.split(normalized);
+            for (String part : parts) {
+                Integer id = ids.get(part);
+                if (id == null && part.indexOf(' ') > 0) {
+                    id = ids.get(part.substring(0, part.indexOf(' ')));
+                }
+                if (id != null) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = id;
+                }
+            }
+        }
+        return count == 0 ? NONE : Arrays.stream(found, 0, count).sorted().distinct().toArray();
+    }
+
+    // The interaction between two ingredients, null when there is none
+    Interaction interaction(int a, int b) {
+        if ((adjacency[a][b >>> 6] & (1L << b)) == 0) {
+            return null;
+        }
+        return interactions.get(pairKey(a, b));
+    }
+
+    // Ingredients present in both sorted id arrays
+    static int[] shared(int[] a, int[] b) {
+        int[] shared = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length;) {
+            if (a[i] == b[j]) {
+                shared[count++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count == shared.length ? shared : Arrays.copyOf(shared, count);
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    static final class Builder {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final Map<Long, Interaction> interactions = new HashMap<>();
+        private final Map<String, List<Integer>> rxcuis = new HashMap<>();
+
+        // Interactions are symmetric, a repeated pair keeps its most severe entry
+        Builder interaction(String a, String b, Severity severity, String description) {
+            int first = id(a);
+            int second = id(b);
+            if (first == second) {
+                return this;
+            }
+            interactions.merge(pairKey(first, second), new Interaction(severity, description),
+                    (existing, added) -> added.severity.compareTo(existing.severity) < 0 ? added : existing);
+            return this;
+        }
+
+        Builder rxcui(String rxcui, String ingredient) {
+            rxcuis.computeIfAbsent(rxcui.trim(), r -> new ArrayList<>()).add(id(ingredient));
+            return this;
+        }
+
+        DrugInteractionIndex build() {
+            int n = names.size();
+            long[][] adjacency = new long[n][(n + 63) >>> 6];
+            for (long key : interactions.keySet()) {
+                int a = (int) (key >>> 32);
+                int b = (int) key;
+                adjacency[a][b >>> 6] |= 1L << b;
+                adjacency[b][a >>> 6] |= 1L << a;
+            }
+            Map<String, int[]> rxcuiIngredients = new HashMap<>();
+            rxcuis.forEach((rxcui, list) -> rxcuiIngredients.put(rxcui,
+                    list.stream().mapToInt(Integer::intValue).sorted().distinct().toArray()));
+            return new DrugInteractionIndex(Map.copyOf(ids), names.toArray(String[]::new), adjacency,
+                    Map.copyOf(interactions), rxcuiIngredients);
+        }
+
+        private int id(String ingredient) {
+            String normalized = DrugQueryNormalizer.normalize(ingredient);
+            if (normalized.isEmpty()) {
+                throw new IllegalArgumentException("Blank ingredient name");
+            }
+            return ids.computeIfAbsent(normalized, name -> {
+                names.add(ingredient.trim());
+                return names.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.meditrack.backend.api.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.meditrack.backend.Model.UserMedication;
+import com.meditrack.backend.api.dto.DrugResult;
+import com.meditrack.backend.dto.DuplicateIngredient;
+import com.meditrack.backend.dto.MedicationInteraction;
+import com.meditrack.backend.dto.MedicationInteractionReport;
+
+import jakarta.annotation.PostConstruct;
+
+// Cross-checks a user's medications for drug interactions and duplicate ingredients against a
+// locally loaded dataset, indexed by DrugInteractionIndex. The dataset is two CSV files:
+//   drug-interactions.csv  ingredient_a,ingredient_b,severity,description
+//   rxcui-ingredients.csv  rxcui,ingredient
+// read from drug.interactions.dataset-dir, or the starter set bundled under interactions/.
+// Reports are cached per user until that user's medication list changes
+@Service
+public class DrugInteractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugInteractionService.class);
+
+    private static final String INTERACTIONS_FILE = "drug-interactions.csv";
+    private static final String RXCUIS_FILE = "rxcui-ingredients.csv";
+    private static final String BUNDLED_DIR = "interactions/";
+
+    private final OpenFdaDrugService drugService;
+    private final String datasetDir;
+    private volatile DrugInteractionIndex index = DrugInteractionIndex.empty();
+
+    // A report is only served while its generation matches the user's, so a report computed
+    // before a concurrent invalidate() is never served afterwards
+    private final Cache<Long, CachedReport> reports;
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public DrugInteractionService(OpenFdaDrugService drugService,
+                                  @Value("${drug.interactions.dataset-dir:}") String datasetDir,
+                                  @Value("${drug.interactions.cache.max-users:10000}") long maxCachedUsers,
+                                  @Value("${drug.interactions.cache.ttl-minutes:360}") long ttlMinutes) {
+        this.drugService = drugService;
+        this.datasetDir = datasetDir;
+        this.reports = CacheBuilder.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            DrugInteractionIndex.Builder builder = new DrugInteractionIndex.Builder();
+            int skipped = 0;
+            for (String[] row : readCsv(INTERACTIONS_FILE)) {
+                try {
+                    builder.interaction(row[0], row[1], DrugInteractionIndex.Severity.parse(row[2]), row.length > 3 ? row[3] : "");
+                } catch (RuntimeException e) {
+                    skipped++;
+                }
+            }
+            for (String[] row : readCsv(RXCUIS_FILE)) {
+                try {
+                    builder.rxcui(row[0], row[1]);
+                } catch (RuntimeException e) {
+                    skipped++;
+                }
+            }
+            index = builder.build();
+            reports.invalidateAll();
+            log.info("Loaded drug interaction dataset: {} ingredients, {} interactions, {} rows skipped in {} ms",
+                    index.ingredientCount(), index.interactionCount(), skipped, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to load drug interaction dataset, interaction checks are disabled: {}", e.getMessage(), e);
+        }
+    }
+
+    // The user's report, computed from the given medications only when not cached
+    public MedicationInteractionReport reportFor(Long userId, Supplier<List<UserMedication>> medications) {
+        // Both counters only grow, so any invalidation changes the sum
+        long generation = epoch.get() + generations.getOrDefault(userId, 0L);
+        CachedReport cached = reports.getIfPresent(userId);
+        if (cached != null && cached.generation == generation) {
+            return cached.report;
+        }
+        MedicationInteractionReport report = check(medications.get());
+        reports.put(userId, new CachedReport(generation, report));
+        return report;
+    }
+
+    // Call whenever one of the user's medications is added, changed or removed
+    public void invalidate(Long userId) {
+        generations.merge(userId, 1L, Long::sum);
+        reports.invalidate(userId);
+    }
+
+    // Drops every cached report, e.g. when medication changes may have been missed
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        reports.invalidateAll();
+    }
+
+    // Checks every pair of medications, both ways round only once
+    MedicationInteractionReport check(List<UserMedication> medications) {
+        DrugInteractionIndex current = index;
+        int[][] ingredients = new int[medications.size()][];
+        for (int i = 0; i < ingredients.length; i++) {
+            ingredients[i] = ingredientsOf(current, medications.get(i));
+        }
+        List<MedicationInteraction> interactions = new ArrayList<>();
+        List<DuplicateIngredient> duplicates = new ArrayList<>();
+        for (int i = 0; i < ingredients.length; i++) {
+            for (int j = i + 1; j < ingredients.length; j++) {
+                UserMedication first = medications.get(i);
+                UserMedication second = medications.get(j);
+                for (int shared : DrugInteractionIndex.shared(ingredients[i], ingredients[j])) {
+                    duplicates.add(new DuplicateIngredient(first.getId(), first.getDrugName(),
+                            second.getId(), second.getDrugName(), current.name(shared)));
+                }
+                for (int a : ingredients[i]) {
+                    for (int b : ingredients[j]) {
+                        DrugInteractionIndex.Interaction interaction = current.interaction(a, b);
+                        if (interaction != null) {
+                            interactions.add(new MedicationInteraction(first.getId(), first.getDrugName(), current.name(a),
+                                    second.getId(), second.getDrugName(), current.name(b),
+                                    interaction.severity.name().toLowerCase(), interaction.description));
+                        }
+                    }
+                }
+            }
+        }
+        // Most severe first, the severity names sort in enum order
+        interactions.sort(Comparator.comparing((MedicationInteraction m) -> DrugInteractionIndex.Severity.parse(m.getSeverity()))
+                .thenComparing(MedicationInteraction::getIngredient)
+                .thenComparing(MedicationInteraction::getOtherIngredient));
+        return new MedicationInteractionReport(interactions, duplicates);
+    }
+
+    // Matches the RxCUI, the name the user saved and the generic name of the label when it is
+    // known locally. Never calls upstream, so a report stays as cheap as the index lookups
+    private int[] ingredientsOf(DrugInteractionIndex current, UserMedication medication) {
+        List<String> names = new ArrayList<>(2);
+        names.add(medication.getDrugName());
+        if (medication.getRxcui() != null) {
+            drugService.findLocallyByRxcui(medication.getRxcui())
+                    .map(DrugResult::getGenericName)
+                    .ifPresent(names::add);
+        }
+        return current.ingredientsOf(medication.getRxcui(), names);
+    }
+
+    private List<String[]> readCsv(String file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (InputStream in = open(file);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false; // column names
+                    continue;
+                }
+                rows.add(splitCsvLine(line));
+            }
+        }
+        return rows;
+    }
+
+    private InputStream open(String file) throws IOException {
+        if (datasetDir != null && !datasetDir.isBlank()) {
+            return Files.newInputStream(Path.of(datasetDir, file));
+        }
+        InputStream in = getClass().getClassLoader().getResourceAsStream(BUNDLED_DIR + file);
+        if (in == null) {
+            throw new IOException("Missing bundled dataset file " + BUNDLED_DIR + file);
+        }
+        return in;
+    }
+
+    // Comma separated, fields may be double-quoted with "" for a literal quote
+    static String[] splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(String[]::new);
+    }
+
+    private static final class CachedReport {
+        final long generation;
+        final MedicationInteractionReport report;
+
+        CachedReport(long generation, MedicationInteractionReport report) {
+            this.generation = generation;
+            this.report = report;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.meditrack.backend.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.api.dto.DrugResult;
+
+// Streams OpenFDA bulk label downloads (drug-label-*.json or .json.zip) into a DrugLabelStore.
+// The parser walks the "results" array one label at a time and only decodes the fields a
+// DrugResult keeps, so memory stays constant no matter how large the dump is
+final class DrugLabelIngester {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugLabelIngester.class);
+
+    private final ObjectMapper objectMapper;
+
+    DrugLabelIngester(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Dump files under a path, either the file itself or the .json/.zip files in a directory
+    static List<Path> dumpFiles(Path source) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return List.of(source);
+        }
+        try (Stream<Path> files = Files.list(source)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".json")
+                            || p.getFileName().toString().endsWith(".zip"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Writes to a temp file first so a failed ingest never replaces a good store
+    int ingest(List<Path> sources, Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        int count;
+        try (DrugLabelStore.Writer writer = new DrugLabelStore.Writer(temp)) {
+            for (Path source : sources) {
+                if (source.getFileName().toString().endsWith(".zip")) {
+                    ingestZip(source, writer);
+                } else {
+                    try (InputStream in = Files.newInputStream(source)) {
+                        ingestStream(in, writer);
+                    }
+                }
+                log.info("Ingested drug labels from {}, {} records so far", source, writer.count());
+            }
+            count = writer.count();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    private void ingestZip(Path source, DrugLabelStore.Writer writer) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(source))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.getName().endsWith(".json")) {
+                    ingestStream(zip, writer);
+                }
+            }
+        }
+    }
+
+    private void ingestStream(InputStream in, DrugLabelStore.Writer writer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            // The zip stream is shared across entries, the caller closes it
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Drug label dump does not start with a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        DrugResult dto = OpenFdaLabelParser.readLabel(parser);
+                        // Labels without any name can never match a search
+                        if (dto.getBrandName() != null || dto.getGenericName() != null) {
+                            writer.append(dto);
+                        }
+                    }
+                } else {
+                    parser.skipChildren(); // "meta" and anything else
+                }
+            }
+        }
+    }
+}
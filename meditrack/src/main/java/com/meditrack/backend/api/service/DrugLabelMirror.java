@@ -0,0 +1,320 @@
+package com.meditrack.backend.api.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.api.dto.DrugResult;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Local mirror of the OpenFDA drug label dataset. Labels are ingested from a bulk dump into a
+// memory-mapped DrugLabelStore, and an in-memory inverted index over generic and brand name
+// tokens answers searches without any network I/O. Disabled when no dump path is configured
+@Component
+public class DrugLabelMirror implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugLabelMirror.class);
+
+    private final DrugLabelIngester ingester;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String dumpPath;
+    private final Path storePath;
+
+    // Swapped in whole once loaded, null until then
+    private volatile Index index;
+
+    // Name searches and RxCUI lookups are counted apart, so the search hit ratio stays meaningful
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rxcuiHits = new LongAdder();
+    private final LongAdder rxcuiMisses = new LongAdder();
+
+    public DrugLabelMirror(ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                           @Value("${openfda.mirror.dump-path:}") String dumpPath,
+                           @Value("${openfda.mirror.store-path:${java.io.tmpdir}/meditrack/drug-label-mirror.dat}") String storePath) {
+        this.ingester = new DrugLabelIngester(objectMapper);
+        this.eventPublisher = eventPublisher;
+        this.dumpPath = dumpPath;
+        this.storePath = Path.of(storePath);
+    }
+
+    // Loading runs off the startup path, searches fall back to upstream until it finishes
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (dumpPath.isBlank() && !Files.exists(storePath)) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                reload();
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to load drug label mirror: {}", e.getMessage(), e);
+            }
+        }, "drug-label-mirror-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Re-ingests the dump when it is newer than the store, then rebuilds the index
+    public synchronized void reload() throws IOException {
+        if (!dumpPath.isBlank()) {
+            Path source = Path.of(dumpPath);
+            List<Path> files = DrugLabelIngester.dumpFiles(source);
+            if (!Files.exists(storePath) || isNewer(files, Files.getLastModifiedTime(storePath))) {
+                long start = System.nanoTime();
+                int count = ingester.ingest(files, storePath);
+                log.info("Ingested {} drug labels into {} in {} ms", count, storePath, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+        long start = System.nanoTime();
+        Index loaded = Index.build(DrugLabelStore.open(storePath));
+        // The previous index is the only holder of the old store, so its mapping is released once
+        // in-flight searches finish and it is garbage collected. The ingester replaced the file by
+        // rename, the old mapping never sees the new contents
+        index = loaded;
+        log.info("Drug label mirror ready: {} labels, {} terms, indexed in {} ms",
+                loaded.store.size(), loaded.postings.size(), (System.nanoTime() - start) / 1_000_000);
+        eventPublisher.publishEvent(new DrugLabelMirrorLoadedEvent(loaded.store.size()));
+    }
+
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    // Labels whose generic or brand name contains every token of the normalized query
+    public List<DrugResult> search(String normalizedQuery, int limit) {
+        Index current = index;
+        if (current == null) {
+            return List.of();
+        }
+        List<DrugResult> results = current.search(normalizedQuery, limit);
+        (results.isEmpty() ? misses : hits).increment();
+        return results;
+    }
+
+    // Whether search would answer the query locally, without touching hit/miss stats
+    boolean contains(String normalizedQuery) {
+        Index current = index;
+        return current != null && !current.search(normalizedQuery, 1).isEmpty();
+    }
+
+    // Whether a label lists this RxCUI first, without touching hit/miss stats
+    boolean containsRxcui(String rxcui) {
+        Index current = index;
+        return current != null && current.byRxcui.containsKey(rxcui);
+    }
+
+    // The first mirrored label listing this RxCUI first, labels only keep their first RxCUI
+    public Optional<DrugResult> findByRxcui(String rxcui) {
+        Index current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Integer id = current.byRxcui.get(rxcui);
+        (id == null ? rxcuiMisses : rxcuiHits).increment();
+        return id == null ? Optional.empty() : Optional.of(current.store.get(id));
+    }
+
+    // Visits the original-case (brand, generic) names of every mirrored label
+    public void forEachLabelName(BiConsumer<String, String> consumer) {
+        Index current = index;
+        if (current == null) {
+            return;
+        }
+        for (int id = 0; id < current.store.size(); id++) {
+            String[] names = current.store.getNames(id);
+            consumer.accept(names[0], names[1]);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("drug.label.mirror.hits", hits, LongAdder::sum).tag("lookup", "search").register(registry);
+        FunctionCounter.builder("drug.label.mirror.misses", misses, LongAdder::sum).tag("lookup", "search").register(registry);
+        FunctionCounter.builder("drug.label.mirror.hits", rxcuiHits, LongAdder::sum).tag("lookup", "rxcui").register(registry);
+        FunctionCounter.builder("drug.label.mirror.misses", rxcuiMisses, LongAdder::sum).tag("lookup", "rxcui").register(registry);
+        Gauge.builder("drug.label.mirror.labels", this, m -> m.index == null ? 0 : m.index.store.size()).register(registry);
+    }
+
+    private static boolean isNewer(List<Path> files, FileTime than) throws IOException {
+        for (Path file : files) {
+            if (Files.getLastModifiedTime(file).compareTo(than) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Splits a name into lowercase alphanumeric terms
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Immutable snapshot: the store plus term -> sorted record id postings
+    private static final class Index {
+
+        final DrugLabelStore store;
+        final Map<String, int[]> postings;
+        // Normalized names kept on-heap so ranking never touches the mapped records
+        final String[] genericNames;
+        final String[] brandNames;
+        final Map<String, Integer> byRxcui;
+
+        private Index(DrugLabelStore store, Map<String, int[]> postings, String[] genericNames, String[] brandNames,
+                      Map<String, Integer> byRxcui) {
+            this.store = store;
+            this.postings = postings;
+            this.genericNames = genericNames;
+            this.brandNames = brandNames;
+            this.byRxcui = byRxcui;
+        }
+
+        static Index build(DrugLabelStore store) {
+            int size = store.size();
+            String[] genericNames = new String[size];
+            String[] brandNames = new String[size];
+            Map<String, PostingsBuilder> builders = new HashMap<>();
+            Map<String, Integer> byRxcui = new HashMap<>();
+            for (int id = 0; id < size; id++) {
+                String rxcui = store.getRxcui(id);
+                if (rxcui != null) {
+                    byRxcui.putIfAbsent(rxcui, id);
+                }
+                String[] names = store.getNames(id);
+                brandNames[id] = DrugQueryNormalizer.normalize(names[0]);
+                genericNames[id] = DrugQueryNormalizer.normalize(names[1]);
+                for (String token : tokenize(genericNames[id])) {
+                    builders.computeIfAbsent(token, t -> new PostingsBuilder()).add(id);
+                }
+                for (String token : tokenize(brandNames[id])) {
+                    builders.computeIfAbsent(token, t -> new PostingsBuilder()).add(id);
+                }
+            }
+            Map<String, int[]> postings = new HashMap<>(builders.size() * 2);
+            builders.forEach((token, builder) -> postings.put(token, builder.toArray()));
+            return new Index(store, postings, genericNames, brandNames, byRxcui);
+        }
+
+        List<DrugResult> search(String query, int limit) {
+            List<String> tokens = tokenize(query);
+            if (tokens.isEmpty()) {
+                return List.of();
+            }
+            int[][] lists = new int[tokens.size()][];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(tokens.get(i));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            // Intersect starting from the rarest term
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+            int[] candidates = lists[0];
+            for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+                candidates = intersect(candidates, lists[i]);
+            }
+
+            // Bounded max-heap on rank keys keeps the best `limit` candidates
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, (a, b) -> Long.compare(b, a));
+            for (int id : candidates) {
+                best.add(rankKey(query, id));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            DrugResult[] results = new DrugResult[best.size()];
+            for (int i = results.length - 1; i >= 0; i--) {
+                results[i] = store.get((int) (best.poll() & 0xFFFFFFFFL));
+            }
+            return List.of(results);
+        }
+
+        // Lower is better: exact name match, then prefix match, then shortest name, then id
+        private long rankKey(String query, int id) {
+            String generic = genericNames[id];
+            String brand = brandNames[id];
+            long tier;
+            if (generic.equals(query) || brand.equals(query)) {
+                tier = 0;
+            } else if (generic.startsWith(query) || brand.startsWith(query)) {
+                tier = 1;
+            } else {
+                tier = 2;
+            }
+            long length = Math.min(0xFFFF, Math.min(generic.isEmpty() ? Integer.MAX_VALUE : generic.length(),
+                    brand.isEmpty() ? Integer.MAX_VALUE : brand.length()));
+            return (tier << 48) | (length << 32) | id;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    // Growable sorted int list, ids arrive in increasing order during the build
+    private static final class PostingsBuilder {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return; // same term in both generic and brand name
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.meditrack.backend.api.service;
+
+// Published once the drug label mirror has (re)loaded, so derived indexes can rebuild
+public class DrugLabelMirrorLoadedEvent {
+
+    private final int labelCount;
+
+    public DrugLabelMirrorLoadedEvent(int labelCount) {
+        this.labelCount = labelCount;
+    }
+
+    public int getLabelCount() {
+        return labelCount;
+    }
+}
@@ -0,0 +1,154 @@
+package com.meditrack.backend.api.service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.meditrack.backend.api.dto.DrugResult;
+
+// Read-only, memory-mapped store of mirrored drug labels addressed by record id.
+// Layout: header [magic][version], records encoded with DrugResultCodec and packed so none
+// crosses a chunk boundary, offset table long[count], footer [offsetTablePos][count][magic]
+final class DrugLabelStore {
+
+    private static final int MAGIC = 0x4D444C53; // "MDLS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int FOOTER_SIZE = 16;
+    // A single MappedByteBuffer is int-addressed, so larger stores are mapped in chunks
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    private final MappedByteBuffer[] chunks;
+    private final long[] offsets;
+
+    private DrugLabelStore(MappedByteBuffer[] chunks, long[] offsets) {
+        this.chunks = chunks;
+        this.offsets = offsets;
+    }
+
+    static DrugLabelStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("Drug label store " + path + " is truncated");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Drug label store " + path + " has an unsupported format");
+            }
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            channel.read(footer, fileSize - FOOTER_SIZE);
+            footer.flip();
+            long offsetTablePos = footer.getLong();
+            int count = footer.getInt();
+            if (footer.getInt() != MAGIC || offsetTablePos + (long) count * 8 != fileSize - FOOTER_SIZE) {
+                throw new IOException("Drug label store " + path + " has an invalid footer");
+            }
+
+            ByteBuffer table = ByteBuffer.allocate(count * 8);
+            while (table.hasRemaining()) {
+                if (channel.read(table, offsetTablePos + table.position()) < 0) {
+                    throw new IOException("Drug label store " + path + " ended inside the offset table");
+                }
+            }
+            table.flip();
+            long[] offsets = new long[count];
+            table.asLongBuffer().get(offsets);
+
+            int chunkCount = (int) ((offsetTablePos + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long start = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, offsetTablePos - start));
+            }
+            return new DrugLabelStore(chunks, offsets);
+        }
+    }
+
+    int size() {
+        return offsets.length;
+    }
+
+    DrugResult get(int id) {
+        return DrugResultCodec.readResult(record(id));
+    }
+
+    // [brandName, genericName] without decoding the label text
+    String[] getNames(int id) {
+        return DrugResultCodec.readNames(record(id));
+    }
+
+    // First listed rxcui of a label, without decoding the label text
+    String getRxcui(int id) {
+        return DrugResultCodec.readRxcui(record(id));
+    }
+
+    private ByteBuffer record(int id) {
+        long offset = offsets[id];
+        ByteBuffer record = chunks[(int) (offset / CHUNK_SIZE)].duplicate();
+        record.position((int) (offset % CHUNK_SIZE));
+        return record;
+    }
+
+    // Streams records to disk, only the offset table is held in memory
+    static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(4096);
+        private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+        private long[] offsets = new long[1024];
+        private int count;
+        private long position;
+
+        Writer(Path path) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            position = HEADER_SIZE;
+        }
+
+        void append(DrugResult result) throws IOException {
+            recordBytes.reset();
+            DrugResultCodec.writeResult(recordOut, result);
+            int length = recordBytes.size();
+            long roomInChunk = CHUNK_SIZE - (position % CHUNK_SIZE);
+            if (length > roomInChunk) {
+                out.write(new byte[(int) roomInChunk]);
+                position += roomInChunk;
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = position;
+            recordBytes.writeTo(out);
+            position += length;
+        }
+
+        int count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long offsetTablePos = position;
+            for (int i = 0; i < count; i++) {
+                out.writeLong(offsets[i]);
+            }
+            out.writeLong(offsetTablePos);
+            out.writeInt(count);
+            out.writeInt(MAGIC);
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.meditrack.backend.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Typo-tolerant lookup over known drug names. A trigram index narrows the names down to those
+// sharing enough trigrams with the query to possibly be within MAX_DISTANCE edits (q-gram
+// lemma), and a bounded Levenshtein check with early exit verifies each candidate.
+// Names can be added at any time, lookups and additions are guarded by a read/write lock
+final class DrugNameFuzzyIndex {
+
+    static final int MAX_DISTANCE = 2;
+
+    // Shorter queries match too many names to be a useful correction
+    private static final int MIN_QUERY_LENGTH = 4;
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String> displays = new ArrayList<>();
+    private long[] weights = new long[64];
+    private int[] lengths = new int[64];
+    private final Map<Long, Postings> trigrams = new HashMap<>();
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Adds a normalized name, or raises the weight of a known one. Re-adding is harmless,
+    // the higher weight is kept
+    void add(String name, String display, long weight) {
+        if (name.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = ids.get(name);
+            if (existing != null) {
+                weights[existing] = Math.max(weights[existing], weight);
+                return;
+            }
+            int id = names.size();
+            ids.put(name, id);
+            names.add(name);
+            displays.add(display);
+            if (id == weights.length) {
+                weights = Arrays.copyOf(weights, id * 2);
+                lengths = Arrays.copyOf(lengths, id * 2);
+            }
+            weights[id] = weight;
+            lengths[id] = name.length();
+            String padded = START + name + END;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.computeIfAbsent(trigram(padded, i), t -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Display names within MAX_DISTANCE edits of a normalized query, closest and most popular
+    // first. Empty when the query is itself a known name
+    List<String> corrections(String query, int limit) {
+        if (query.length() < MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (ids.containsKey(query)) {
+                return List.of();
+            }
+            // Each edit destroys at most 3 of the query's trigrams
+            String padded = START + query + END;
+            int grams = padded.length() - 2;
+            int threshold = Math.max(1, grams - 3 * MAX_DISTANCE);
+            // Shared trigram counts per name, skipping names too long or short to be in range
+            int[] shared = new int[names.size()];
+            int[] candidates = new int[64];
+            int candidateCount = 0;
+            for (int i = 0; i < grams; i++) {
+                Postings postings = trigrams.get(trigram(padded, i));
+                if (postings == null) {
+                    continue;
+                }
+                for (int p = 0; p < postings.size; p++) {
+                    int id = postings.ids[p];
+                    if (Math.abs(lengths[id] - query.length()) > MAX_DISTANCE) {
+                        continue;
+                    }
+                    if (++shared[id] == threshold) {
+                        if (candidateCount == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                        }
+                        candidates[candidateCount++] = id;
+                    }
+                }
+            }
+            List<long[]> matches = new ArrayList<>(); // [distance, id]
+            for (int c = 0; c < candidateCount; c++) {
+                int id = candidates[c];
+                int distance = distance(query, names.get(id), MAX_DISTANCE);
+                if (distance <= MAX_DISTANCE) {
+                    matches.add(new long[] { distance, id });
+                }
+            }
+            matches.sort(Comparator.<long[]>comparingLong(m -> m[0])
+                    .thenComparing(m -> weights[(int) m[1]], Comparator.reverseOrder())
+                    .thenComparing(m -> names.get((int) m[1])));
+            Set<String> corrections = new LinkedHashSet<>();
+            for (long[] match : matches) {
+                if (corrections.size() == limit) {
+                    break;
+                }
+                corrections.add(displays.get((int) match[1]));
+            }
+            return List.copyOf(corrections);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long trigram(String padded, int i) {
+        return ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+    }
+
+    // Levenshtein distance, or max + 1 as soon as it is known to exceed max
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Growable sorted id list, ids are assigned in increasing order
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return; // trigram repeats within the name
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.meditrack.backend.api.service;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Normalizes drug search queries so equivalent inputs share one cache key
+public final class DrugQueryNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private DrugQueryNormalizer() {
+    }
+
+    // "  IBUPROFEN%20 200 " and "ibuprofen 200" both become "ibuprofen 200"
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String decoded = query;
+        // Only decode when the input looks encoded, a lone '%' is left untouched
+        if (decoded.indexOf('%') >= 0 || decoded.indexOf('+') >= 0) {
+            try {
+                decoded = URLDecoder.decode(decoded, StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                // malformed escape sequence, keep the raw value
+            }
+        }
+        decoded = Normalizer.normalize(decoded, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(decoded.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
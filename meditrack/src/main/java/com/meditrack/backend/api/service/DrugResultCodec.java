@@ -0,0 +1,106 @@
+package com.meditrack.backend.api.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.meditrack.backend.api.dto.DrugResult;
+
+// Compact binary encoding of DrugResult lists for the on-disk stores
+final class DrugResultCodec {
+
+    private DrugResultCodec() {
+    }
+
+    static byte[] encode(List<DrugResult> results) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(results.size());
+            for (DrugResult result : results) {
+                writeResult(out, result);
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<DrugResult> decode(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<DrugResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(readResult(buffer));
+        }
+        return results;
+    }
+
+    // Field order is part of the file format, append new fields at the end only
+    static void writeResult(DataOutputStream out, DrugResult result) throws IOException {
+        writeString(out, result.getBrandName());
+        writeString(out, result.getGenericName());
+        writeString(out, result.getPurpose());
+        writeString(out, result.getIndications());
+        writeString(out, result.getWarnings());
+        writeString(out, result.getSideEffects());
+        writeString(out, result.getDosage());
+        writeString(out, result.getRoute());
+        writeString(out, result.getRxcui());
+    }
+
+    static DrugResult readResult(ByteBuffer buffer) {
+        DrugResult result = new DrugResult();
+        result.setBrandName(readString(buffer));
+        result.setGenericName(readString(buffer));
+        result.setPurpose(readString(buffer));
+        result.setIndications(readString(buffer));
+        result.setWarnings(readString(buffer));
+        result.setSideEffects(readString(buffer));
+        result.setDosage(readString(buffer));
+        result.setRoute(readString(buffer));
+        result.setRxcui(readString(buffer));
+        return result;
+    }
+
+    // Reads only the leading brand and generic name of a record, for index builds
+    static String[] readNames(ByteBuffer buffer) {
+        return new String[] { readString(buffer), readString(buffer) };
+    }
+
+    // Reads only the trailing rxcui of a record, skipping the other fields undecoded
+    static String readRxcui(ByteBuffer buffer) {
+        for (int field = 0; field < 8; field++) {
+            int length = buffer.getInt();
+            if (length > 0) {
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return readString(buffer);
+    }
+
+    // Length-prefixed UTF-8, -1 marks null (writeUTF caps at 64KB which label text can exceed)
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+package com.meditrack.backend.api.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.meditrack.backend.api.dto.DrugResult;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+// Two-tier cache for drug search results keyed by the normalized query.
+// L1 is a small on-heap cache, L2 a larger memory-mapped file that survives restarts.
+// Stats are published as drug.search.cache.* meters under /actuator/metrics
+@Component
+public class DrugSearchCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugSearchCache.class);
+
+    // Largest L2 file in MB whose size in bytes still fits an int
+    static final int MAX_L2_SIZE_MB = 2047;
+
+    private final Cache<String, CachedDrugSearch> l1;
+    private final MappedDrugSearchStore l2; // null when disabled or the file could not be opened
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    public DrugSearchCache(@Value("${openfda.cache.l1.max-size:1000}") long l1MaxSize,
+                           @Value("${openfda.cache.ttl-minutes:360}") long ttlMinutes,
+                           @Value("${openfda.cache.negative-ttl-minutes:10}") long negativeTtlMinutes,
+                           @Value("${openfda.cache.l2.enabled:true}") boolean l2Enabled,
+                           @Value("${openfda.cache.l2.path:${java.io.tmpdir}/meditrack/drug-search-cache.dat}") String l2Path,
+                           @Value("${openfda.cache.l2.size-mb:64}") int l2SizeMb) {
+        // One int-addressed mapping holds the whole file, a bad size is a configuration error
+        // rather than a reason to quietly run without L2
+        if (l2Enabled && (l2SizeMb < 1 || l2SizeMb > MAX_L2_SIZE_MB)) {
+            throw new IllegalArgumentException("openfda.cache.l2.size-mb must be between 1 and " + MAX_L2_SIZE_MB + ", got " + l2SizeMb);
+        }
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.negativeTtlMillis = TimeUnit.MINUTES.toMillis(negativeTtlMinutes);
+        this.l1 = CacheBuilder.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.l2 = l2Enabled ? openL2(Path.of(l2Path), l2SizeMb) : null;
+    }
+
+    // Returns cached results for a normalized query, empty Optional on a miss
+    public Optional<List<DrugResult>> get(String key) {
+        long now = System.currentTimeMillis();
+        CachedDrugSearch entry = l1.getIfPresent(key);
+        if (entry != null && !entry.isExpired(now)) {
+            l1Hits.increment();
+            return hit(entry);
+        }
+        if (l2 != null) {
+            entry = l2.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                l2Hits.increment();
+                l1.put(key, entry); // promote so the next lookup stays on-heap
+                return hit(entry);
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    // Whether a query has an unexpired entry, without touching hit/miss stats
+    public boolean contains(String key) {
+        long now = System.currentTimeMillis();
+        CachedDrugSearch entry = l1.getIfPresent(key);
+        if (entry == null && l2 != null) {
+            entry = l2.get(key);
+        }
+        return entry != null && !entry.isExpired(now);
+    }
+
+    // Last stored results for a query even past their TTL, for when upstream cannot be reached.
+    // Expired entries mostly come from L2, which keeps them until it next compacts
+    public Optional<List<DrugResult>> getStale(String key) {
+        CachedDrugSearch entry = l1.getIfPresent(key);
+        if (entry == null && l2 != null) {
+            entry = l2.get(key);
+        }
+        if (entry == null) {
+            return Optional.empty();
+        }
+        staleHits.increment();
+        return Optional.of(entry.getResults());
+    }
+
+    // Stores results for a normalized query, empty lists get the shorter negative TTL
+    public void put(String key, List<DrugResult> results) {
+        long now = System.currentTimeMillis();
+        long ttl = results.isEmpty() ? negativeTtlMillis : ttlMillis;
+        CachedDrugSearch entry = new CachedDrugSearch(results, now, now + ttl);
+        l1.put(key, entry);
+        if (l2 != null) {
+            try {
+                l2.put(key, entry);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write drug search L2 cache entry for '{}': {}", key, e.getMessage());
+            }
+        }
+    }
+
+    // Visits every result held in L2, expired ones included, e.g. to seed name indexes
+    public void forEachCachedResult(Consumer<DrugResult> consumer) {
+        if (l2 != null) {
+            l2.forEach((key, entry) -> entry.getResults().forEach(consumer));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("drug.search.cache.hits", l1Hits, LongAdder::sum).tag("tier", "l1").register(registry);
+        FunctionCounter.builder("drug.search.cache.hits", l2Hits, LongAdder::sum).tag("tier", "l2").register(registry);
+        FunctionCounter.builder("drug.search.cache.negative.hits", negativeHits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.search.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.search.cache.stale.hits", staleHits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("drug.search.cache.evictions", l1, c -> c.stats().evictionCount()).tag("tier", "l1").register(registry);
+        Gauge.builder("drug.search.cache.size", l1, Cache::size).tag("tier", "l1").register(registry);
+        if (l2 != null) {
+            FunctionCounter.builder("drug.search.cache.evictions", l2, MappedDrugSearchStore::evictionCount).tag("tier", "l2").register(registry);
+            FunctionCounter.builder("drug.search.cache.compaction.failures", l2, MappedDrugSearchStore::compactionFailureCount).tag("tier", "l2").register(registry);
+            Gauge.builder("drug.search.cache.size", l2, MappedDrugSearchStore::size).tag("tier", "l2").register(registry);
+            Gauge.builder("drug.search.cache.bytes", l2, MappedDrugSearchStore::bytesUsed).tag("tier", "l2").register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (l2 != null) {
+            l2.close();
+        }
+    }
+
+    private Optional<List<DrugResult>> hit(CachedDrugSearch entry) {
+        if (entry.isNegative()) {
+            negativeHits.increment();
+        }
+        return Optional.of(entry.getResults());
+    }
+
+    // A broken or unwritable cache file should never take search down, fall back to L1 only
+    private static MappedDrugSearchStore openL2(Path path, int sizeMb) {
+        try {
+            return new MappedDrugSearchStore(path, sizeMb * 1024 * 1024);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Drug search L2 cache disabled, could not open {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+}
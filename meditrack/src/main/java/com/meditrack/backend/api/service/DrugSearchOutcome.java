@@ -0,0 +1,48 @@
+package com.meditrack.backend.api.service;
+
+import java.util.List;
+
+import com.meditrack.backend.api.dto.DrugResult;
+
+// Drug search results plus how trustworthy they are. Degraded outcomes come from a failing or
+// circuit-broken upstream: either the last known results past their TTL, or nothing at all
+public final class DrugSearchOutcome {
+
+    public enum Status {
+        FRESH,       // mirror, cache within TTL or a successful upstream call
+        STALE,       // last known results, served while upstream is unavailable
+        UNAVAILABLE  // upstream unavailable and nothing cached for the query
+    }
+
+    private final List<DrugResult> results;
+    private final Status status;
+
+    private DrugSearchOutcome(List<DrugResult> results, Status status) {
+        this.results = results;
+        this.status = status;
+    }
+
+    static DrugSearchOutcome fresh(List<DrugResult> results) {
+        return new DrugSearchOutcome(results, Status.FRESH);
+    }
+
+    static DrugSearchOutcome stale(List<DrugResult> results) {
+        return new DrugSearchOutcome(results, Status.STALE);
+    }
+
+    static DrugSearchOutcome unavailable() {
+        return new DrugSearchOutcome(List.of(), Status.UNAVAILABLE);
+    }
+
+    public List<DrugResult> getResults() {
+        return results;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isDegraded() {
+        return status != Status.FRESH;
+    }
+}
@@ -0,0 +1,106 @@
+package com.meditrack.backend.api.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.meditrack.backend.api.dto.DrugResult;
+import com.meditrack.backend.repository.UserMedicationRepository;
+
+// "Did you mean" corrections for misspelled drug names, answered from a local DrugNameFuzzyIndex
+// without any upstream call. Seeded from the label mirror, cached search results and the names
+// users track, then grows as upstream searches return names it has not seen
+@Service
+public class DrugSpellingService {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugSpellingService.class);
+
+    private static final int MAX_CORRECTIONS = 5;
+    // Same popularity scale as the suggest index: a tracking user outweighs a label
+    private static final long TRACKED_WEIGHT = 100;
+
+    private final DrugLabelMirror mirror;
+    private final DrugSearchCache cache;
+    private final UserMedicationRepository userMedicationRepository;
+    private final DrugNameFuzzyIndex index = new DrugNameFuzzyIndex();
+
+    public DrugSpellingService(DrugLabelMirror mirror, DrugSearchCache cache,
+                               UserMedicationRepository userMedicationRepository) {
+        this.mirror = mirror;
+        this.cache = cache;
+        this.userMedicationRepository = userMedicationRepository;
+    }
+
+    // Known drug names close to what the user typed, best first
+    public List<String> didYouMean(String name) {
+        return index.corrections(DrugQueryNormalizer.normalize(name), MAX_CORRECTIONS);
+    }
+
+    // Adds the names in fresh search results, cheap for names already known
+    public void learn(List<DrugResult> results) {
+        for (DrugResult result : results) {
+            add(result.getBrandName(), 1);
+            add(result.getGenericName(), 1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        seedInBackground();
+    }
+
+    @EventListener(DrugLabelMirrorLoadedEvent.class)
+    public void seedOnMirrorLoaded() {
+        seedInBackground();
+    }
+
+    private void seedInBackground() {
+        Thread seeder = new Thread(() -> {
+            try {
+                seed();
+            } catch (RuntimeException e) {
+                log.error("Failed to seed drug spelling index: {}", e.getMessage(), e);
+            }
+        }, "drug-spelling-seeder");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    // Adds every name from the local sources into the live index, searches keep working meanwhile
+    synchronized void seed() {
+        long start = System.nanoTime();
+        Map<String, Long> labelCounts = new HashMap<>();
+        mirror.forEachLabelName((brand, generic) -> {
+            count(labelCounts, brand);
+            count(labelCounts, generic);
+        });
+        cache.forEachCachedResult(result -> {
+            count(labelCounts, result.getBrandName());
+            count(labelCounts, result.getGenericName());
+        });
+        labelCounts.forEach(this::add);
+        for (UserMedicationRepository.DrugNameUsage usage : userMedicationRepository.countUsesByDrugName()) {
+            add(usage.getDrugName(), usage.getUses() * TRACKED_WEIGHT);
+        }
+        log.info("Drug spelling index holds {} names, seeded in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void count(Map<String, Long> counts, String name) {
+        if (name != null && !name.isBlank()) {
+            counts.merge(name.trim(), 1L, Long::sum);
+        }
+    }
+
+    private void add(String name, long weight) {
+        if (name == null) {
+            return;
+        }
+        index.add(DrugQueryNormalizer.normalize(name), name.trim(), weight);
+    }
+}
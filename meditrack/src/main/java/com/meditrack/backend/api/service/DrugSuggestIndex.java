@@ -0,0 +1,229 @@
+package com.meditrack.backend.api.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Memory-mapped prefix trie for drug name autocomplete. Every node stores its own top-K
+// completions, so a lookup is one walk down the prefix plus K string reads, no subtree scan.
+// Layout: header [magic][version], nodes in BFS order, then the display strings.
+// Node: [childCount u16][suggestionCount u8][(label char, child offset int) * childCount]
+//       [string offset int * suggestionCount], children sorted by label for binary search.
+// String: [length u16][utf8]
+final class DrugSuggestIndex {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAGIC = 0x4D445355; // "MDSU"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int CHILD_ENTRY_SIZE = 6;
+
+    private final MappedByteBuffer buffer;
+
+    private DrugSuggestIndex(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static DrugSuggestIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Drug suggest index " + path + " has an unsupported format");
+            }
+            return new DrugSuggestIndex(buffer);
+        }
+    }
+
+    // Display names completing a normalized prefix, most popular first. Only absolute
+    // reads are used, so concurrent lookups share the buffer without duplicating it
+    List<String> suggest(String prefix, int limit) {
+        int node = HEADER_SIZE;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = child(node, prefix.charAt(i));
+            if (node < 0) {
+                return List.of();
+            }
+        }
+        int childCount = buffer.getShort(node) & 0xFFFF;
+        int count = Math.min(limit, buffer.get(node + 2) & 0xFF);
+        int suggestions = node + 3 + childCount * CHILD_ENTRY_SIZE;
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int string = buffer.getInt(suggestions + i * 4);
+            byte[] utf8 = new byte[buffer.getShort(string) & 0xFFFF];
+            buffer.get(string + 2, utf8);
+            names.add(new String(utf8, StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+
+    private int child(int node, char label) {
+        int childCount = buffer.getShort(node) & 0xFFFF;
+        int base = node + 3;
+        int lo = 0;
+        int hi = childCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midLabel = buffer.getChar(base + mid * CHILD_ENTRY_SIZE);
+            if (midLabel < label) {
+                lo = mid + 1;
+            } else if (midLabel > label) {
+                hi = mid - 1;
+            } else {
+                return buffer.getInt(base + mid * CHILD_ENTRY_SIZE + 2);
+            }
+        }
+        return -1;
+    }
+
+    // A suggestion source entry: what to show and how popular it is
+    static final class Entry {
+        final String display;
+        long weight;
+
+        Entry(String display, long weight) {
+            this.display = display;
+            this.weight = weight;
+        }
+    }
+
+    // Builds the trie from normalized key -> entry and writes it atomically to target
+    static void write(Map<String, Entry> entries, Path target) throws IOException {
+        // Sorted keys mean children are always appended in label order
+        TreeMap<String, Entry> sorted = new TreeMap<>(entries);
+        String[] displays = new String[sorted.size()];
+        long[] weights = new long[sorted.size()];
+        BuildNode root = new BuildNode();
+        int id = 0;
+        for (Map.Entry<String, Entry> e : sorted.entrySet()) {
+            String key = e.getKey();
+            if (key.isEmpty()) {
+                continue;
+            }
+            displays[id] = e.getValue().display;
+            weights[id] = e.getValue().weight;
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childFor(key.charAt(i));
+            }
+            node.terminal = id++;
+        }
+        root.computeTop(weights);
+
+        // Assign offsets in BFS order, then strings after the last node
+        List<BuildNode> order = new ArrayList<>();
+        ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        int offset = HEADER_SIZE;
+        while (!queue.isEmpty()) {
+            BuildNode node = queue.poll();
+            node.offset = offset;
+            offset += 3 + node.childCount * CHILD_ENTRY_SIZE + node.top.length * 4;
+            order.add(node);
+            for (int i = 0; i < node.childCount; i++) {
+                queue.add(node.children[i]);
+            }
+        }
+        byte[][] utf8 = new byte[id][];
+        int[] stringOffsets = new int[id];
+        for (int i = 0; i < id; i++) {
+            byte[] bytes = displays[i].getBytes(StandardCharsets.UTF_8);
+            utf8[i] = bytes.length > 0xFFFF ? Arrays.copyOf(bytes, 0xFFFF) : bytes;
+            stringOffsets[i] = offset;
+            offset += 2 + utf8[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(offset);
+        out.putInt(MAGIC).putInt(VERSION);
+        for (BuildNode node : order) {
+            out.putShort((short) node.childCount);
+            out.put((byte) node.top.length);
+            for (int i = 0; i < node.childCount; i++) {
+                out.putChar(node.labels[i]).putInt(node.children[i].offset);
+            }
+            for (int string : node.top) {
+                out.putInt(stringOffsets[string]);
+            }
+        }
+        for (byte[] bytes : utf8) {
+            out.putShort((short) bytes.length).put(bytes);
+        }
+        out.flip();
+
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        // Readers of the previous file keep their mapping, new opens see the new one
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Heap-side trie node, only lives for the duration of a build
+    private static final class BuildNode {
+        private static final char[] NO_LABELS = new char[0];
+        private static final BuildNode[] NO_CHILDREN = new BuildNode[0];
+
+        char[] labels = NO_LABELS;
+        BuildNode[] children = NO_CHILDREN;
+        int childCount;
+        int terminal = -1;
+        int[] top;
+        int offset;
+
+        BuildNode childFor(char label) {
+            if (childCount > 0 && labels[childCount - 1] == label) {
+                return children[childCount - 1];
+            }
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            BuildNode child = new BuildNode();
+            labels[childCount] = label;
+            children[childCount++] = child;
+            return child;
+        }
+
+        // Post-order merge of the children's top lists with this node's own name
+        void computeTop(long[] weights) {
+            List<Integer> candidates = new ArrayList<>();
+            if (terminal >= 0) {
+                candidates.add(terminal);
+            }
+            for (int i = 0; i < childCount; i++) {
+                children[i].computeTop(weights);
+                for (int string : children[i].top) {
+                    candidates.add(string);
+                }
+            }
+            candidates.sort(Comparator.<Integer>comparingLong(s -> weights[s]).reversed().thenComparingInt(s -> s));
+            int size = Math.min(MAX_SUGGESTIONS, candidates.size());
+            top = new int[size];
+            for (int i = 0; i < size; i++) {
+                top[i] = candidates.get(i);
+            }
+        }
+    }
+}
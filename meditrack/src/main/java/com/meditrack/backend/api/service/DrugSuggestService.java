@@ -0,0 +1,110 @@
+package com.meditrack.backend.api.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.meditrack.backend.repository.UserMedicationRepository;
+
+// Drug name autocomplete backed by a memory-mapped DrugSuggestIndex. The last built index is
+// mapped at construction so suggestions work immediately after a restart, and it is rebuilt
+// in the background from the label mirror and the names users already track
+@Service
+public class DrugSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(DrugSuggestService.class);
+
+    // Each user tracking a drug counts as much as this many labels carrying the name,
+    // so commonly tracked drugs rank above obscure label variants
+    private static final long TRACKED_WEIGHT = 100;
+
+    private final DrugLabelMirror mirror;
+    private final UserMedicationRepository userMedicationRepository;
+    private final Path indexPath;
+
+    private volatile DrugSuggestIndex index;
+
+    public DrugSuggestService(DrugLabelMirror mirror, UserMedicationRepository userMedicationRepository,
+                              @Value("${openfda.suggest.index-path:${java.io.tmpdir}/meditrack/drug-suggest.idx}") String indexPath) {
+        this.mirror = mirror;
+        this.userMedicationRepository = userMedicationRepository;
+        this.indexPath = Path.of(indexPath);
+        if (Files.exists(this.indexPath)) {
+            try {
+                this.index = DrugSuggestIndex.open(this.indexPath);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable drug suggest index at {}: {}", indexPath, e.getMessage());
+            }
+        }
+    }
+
+    // Up to MAX_SUGGESTIONS display names starting with the prefix, no upstream I/O
+    public List<String> suggest(String prefix) {
+        DrugSuggestIndex current = index;
+        String normalized = DrugQueryNormalizer.normalize(prefix);
+        if (current == null || normalized.isEmpty()) {
+            return List.of();
+        }
+        return current.suggest(normalized, DrugSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildInBackground();
+    }
+
+    @EventListener(DrugLabelMirrorLoadedEvent.class)
+    public void rebuildOnMirrorLoaded() {
+        rebuildInBackground();
+    }
+
+    private void rebuildInBackground() {
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to rebuild drug suggest index: {}", e.getMessage(), e);
+            }
+        }, "drug-suggest-index-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    // Collects names from all sources, writes a new index file and maps it
+    public synchronized void rebuild() throws IOException {
+        long start = System.nanoTime();
+        Map<String, DrugSuggestIndex.Entry> entries = new HashMap<>();
+        mirror.forEachLabelName((brand, generic) -> {
+            add(entries, brand, 1);
+            add(entries, generic, 1);
+        });
+        for (UserMedicationRepository.DrugNameUsage usage : userMedicationRepository.countUsesByDrugName()) {
+            add(entries, usage.getDrugName(), usage.getUses() * TRACKED_WEIGHT);
+        }
+        if (entries.isEmpty()) {
+            return; // keep whatever index we already have
+        }
+        DrugSuggestIndex.write(entries, indexPath);
+        index = DrugSuggestIndex.open(indexPath);
+        log.info("Drug suggest index rebuilt with {} names in {} ms", entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void add(Map<String, DrugSuggestIndex.Entry> entries, String name, long weight) {
+        String key = DrugQueryNormalizer.normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        // First spelling seen wins as the display name, weights accumulate across sources
+        entries.computeIfAbsent(key, k -> new DrugSuggestIndex.Entry(name.trim(), 0)).weight += weight;
+    }
+}
@@ -0,0 +1,245 @@
+package com.meditrack.backend.api.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// L2 drug search cache: an append-only log in a memory-mapped file that survives restarts.
+// Layout: header [magic][version][writePos][reserved], then records
+// [marker][length][keyLength][key][writtenAt][expiresAt][encoded results]
+final class MappedDrugSearchStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedDrugSearchStore.class);
+
+    private static final int MAGIC = 0x4D445343; // "MDSC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int WRITE_POS_OFFSET = 8;
+    private static final int RECORD_MARKER = 0x52454331;
+    // marker + length + keyLength + writtenAt + expiresAt
+    private static final int RECORD_OVERHEAD = 4 + 4 + 4 + 8 + 8;
+
+    private final Path path;
+    private final int capacity;
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong compactionFailures = new AtomicLong();
+
+    // Readers grab the current segment once, compaction swaps in a new one. Nothing else keeps
+    // the old one, so its mapping (and the replaced file) is released once readers are done and
+    // the buffer is garbage collected. Java has no safe way to unmap it any sooner
+    private volatile Segment segment;
+
+    private static final class Segment {
+        final MappedByteBuffer buffer;
+        final Map<String, Integer> index;
+        int writePos;
+
+        Segment(MappedByteBuffer buffer, Map<String, Integer> index, int writePos) {
+            this.buffer = buffer;
+            this.index = index;
+            this.writePos = writePos;
+        }
+    }
+
+    MappedDrugSearchStore(Path path, int capacity) throws IOException {
+        this.path = path;
+        this.capacity = capacity;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.segment = open();
+    }
+
+    CachedDrugSearch get(String key) {
+        Segment current = segment;
+        Integer offset = current.index.get(key);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer record = current.buffer.duplicate();
+        record.position(offset + 8); // skip marker and length
+        int keyLength = record.getInt();
+        record.position(record.position() + keyLength);
+        long writtenAt = record.getLong();
+        long expiresAt = record.getLong();
+        return new CachedDrugSearch(DrugResultCodec.decode(record), writtenAt, expiresAt);
+    }
+
+    // Visits every live entry, expired ones included
+    void forEach(BiConsumer<String, CachedDrugSearch> consumer) {
+        for (String key : segment.index.keySet()) {
+            CachedDrugSearch entry = get(key);
+            if (entry != null) {
+                consumer.accept(key, entry);
+            }
+        }
+    }
+
+    synchronized void put(String key, CachedDrugSearch entry) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = DrugResultCodec.encode(entry.getResults());
+        int recordSize = RECORD_OVERHEAD + keyBytes.length + payload.length;
+        if (recordSize > capacity - HEADER_SIZE) {
+            log.debug("Skipping L2 write for '{}', record of {} bytes exceeds store capacity", key, recordSize);
+            return;
+        }
+        if (segment.writePos + recordSize > capacity) {
+            compact(recordSize);
+        }
+        if (segment.writePos + recordSize <= capacity) {
+            append(segment, keyBytes, entry, payload);
+        }
+    }
+
+    private static void append(Segment current, byte[] keyBytes, CachedDrugSearch entry, byte[] payload) {
+        int recordSize = RECORD_OVERHEAD + keyBytes.length + payload.length;
+        ByteBuffer out = current.buffer.duplicate();
+        out.position(current.writePos);
+        out.putInt(RECORD_MARKER);
+        out.putInt(recordSize - 8);
+        out.putInt(keyBytes.length);
+        out.put(keyBytes);
+        out.putLong(entry.getWrittenAt());
+        out.putLong(entry.getExpiresAt());
+        out.put(payload);
+
+        current.index.put(new String(keyBytes, StandardCharsets.UTF_8), current.writePos);
+        current.writePos += recordSize;
+        current.buffer.putInt(WRITE_POS_OFFSET, current.writePos);
+    }
+
+    int size() {
+        return segment.index.size();
+    }
+
+    long bytesUsed() {
+        return segment.writePos;
+    }
+
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    long compactionFailureCount() {
+        return compactionFailures.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        segment.buffer.force();
+    }
+
+    // Rewrites the latest version of every live key into a fresh file, dropping expired
+    // entries first and then the oldest ones until there is room for the pending write
+    private void compact(int pendingRecordSize) {
+        long now = System.currentTimeMillis();
+        Segment current = segment;
+        List<Map.Entry<String, CachedDrugSearch>> live = new ArrayList<>(current.index.size());
+        long dropped = 0;
+        for (String key : current.index.keySet()) {
+            CachedDrugSearch entry = get(key);
+            if (entry.isExpired(now)) {
+                dropped++;
+            } else {
+                live.add(Map.entry(key, entry));
+            }
+        }
+        // Newest first so the oldest are the ones left behind when space runs out
+        live.sort(Comparator.comparingLong((Map.Entry<String, CachedDrugSearch> e) -> e.getValue().getWrittenAt()).reversed());
+
+        try {
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            Segment fresh = create(compacted);
+            int budget = capacity / 2 - pendingRecordSize;
+            for (Map.Entry<String, CachedDrugSearch> e : live) {
+                if (fresh.writePos - HEADER_SIZE >= budget) {
+                    dropped++;
+                    continue;
+                }
+                append(fresh, e.getKey().getBytes(StandardCharsets.UTF_8), e.getValue(),
+                        DrugResultCodec.encode(e.getValue().getResults()));
+            }
+            fresh.buffer.force();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segment = fresh;
+            evictions.addAndGet(dropped);
+            log.info("Compacted drug search L2 cache: kept {} entries, evicted {}", fresh.index.size(), dropped);
+        } catch (IOException e) {
+            // Keep serving reads from the old segment. The write that triggered this is dropped and
+            // the next one that does not fit tries again, so a passing disk error costs no more
+            compactionFailures.incrementAndGet();
+            log.warn("Failed to compact drug search L2 cache at {}: {}", path, e.getMessage());
+            try {
+                Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".compact"));
+            } catch (IOException ignored) {
+                // left for the next attempt to truncate
+            }
+        }
+    }
+
+    private Segment open() throws IOException {
+        if (Files.exists(path) && Files.size(path) == capacity) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+                    Segment loaded = scan(buffer);
+                    log.info("Loaded drug search L2 cache from {} with {} entries", path, loaded.index.size());
+                    return loaded;
+                }
+            }
+        }
+        log.info("Creating drug search L2 cache at {} ({} bytes)", path, capacity);
+        return create(path);
+    }
+
+    private Segment create(Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(WRITE_POS_OFFSET, HEADER_SIZE);
+            return new Segment(buffer, new ConcurrentHashMap<>(), HEADER_SIZE);
+        }
+    }
+
+    // Rebuilds the key index from the log, later records for a key win
+    private Segment scan(MappedByteBuffer buffer) {
+        int writePos = buffer.getInt(WRITE_POS_OFFSET);
+        if (writePos < HEADER_SIZE || writePos > capacity) {
+            writePos = HEADER_SIZE;
+        }
+        Map<String, Integer> index = new ConcurrentHashMap<>();
+        int pos = HEADER_SIZE;
+        while (pos + RECORD_OVERHEAD <= writePos && buffer.getInt(pos) == RECORD_MARKER) {
+            int length = buffer.getInt(pos + 4);
+            int keyLength = buffer.getInt(pos + 8);
+            if (length <= 0 || pos + 8 + length > writePos || keyLength < 0 || keyLength > length) {
+                break; // torn write at the tail
+            }
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(pos + 12, keyBytes);
+            index.put(new String(keyBytes, StandardCharsets.UTF_8), pos);
+            pos += 8 + length;
+        }
+        buffer.putInt(WRITE_POS_OFFSET, pos);
+        return new Segment(buffer, index, pos);
+    }
+}
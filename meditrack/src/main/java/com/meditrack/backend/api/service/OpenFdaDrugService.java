@@ -1,61 +1,426 @@
 package com.meditrack.backend.api.service;
 
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+import com.meditrack.backend.api.client.UpstreamCircuitBreaker;
+import com.meditrack.backend.api.client.UpstreamException;
+import com.meditrack.backend.api.client.UpstreamHttpClient;
+import com.meditrack.backend.api.client.UpstreamQuotaGovernor;
 import com.meditrack.backend.api.dto.OpenFdaLabelResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import jakarta.annotation.PreDestroy;
 import com.meditrack.backend.api.dto.DrugResult;
 
 // Service to interact with OpenFDA API for drug information
 @Service
 public class OpenFdaDrugService {
-    
-    // RestTemplate for making HTTP requests
-    private final RestTemplate restTemplate = new RestTemplate();
+
+    // Pooled, deadline-bounded client for the upstream API
+    private final UpstreamHttpClient httpClient;
+    // Two-tier cache in front of the upstream API
+    private final DrugSearchCache cache;
+    // Shares one upstream call between concurrent identical searches
+    private final RequestCoalescer coalescer;
+    // Local copy of the label dataset, answers most searches without going upstream
+    private final DrugLabelMirror mirror;
+    // Fails fast while upstream is erroring or slow, stale cache entries are served instead
+    private final UpstreamCircuitBreaker circuitBreaker;
+    // Upstream API key quota shared by all instances, every upstream call takes a permit
+    private final UpstreamQuotaGovernor quota;
+    // Picks up names upstream knows and the local sources do not, for "did you mean"
+    private final DrugSpellingService spelling;
+    // Background refreshes of stale entries, small and bounded, overflow is dropped
+    private final ExecutorService refresher;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // Parallel upstream lookups for batch requests, shared by all requests so the total
+    // fan-out stays bounded. Lookups that do not fit the queue are treated as unanswered
+    private final ThreadPoolExecutor fanOut;
+    private final long batchTimeoutMillis;
+    // Most RxCUIs one lookup may send upstream, the rest are answered from stale cache entries
+    // only. Far below the batch size so one request cannot spend the shared upstream quota
+    private final int batchMaxUpstream;
+    // Base URL of the label API - placeholder endpoint for public repo
+    private final String baseUrl;
+
+    // Max results per search, matches the upstream limit parameter
+    private static final int SEARCH_LIMIT = 5;
+    // Cache and coalescing key prefix for single-label RxCUI lookups
+    private static final String RXCUI_KEY = "rxcui:";
+
+    public OpenFdaDrugService(UpstreamHttpClient httpClient, DrugSearchCache cache,
+                              RequestCoalescer coalescer, DrugLabelMirror mirror, UpstreamCircuitBreaker circuitBreaker,
+                              UpstreamQuotaGovernor quota, DrugSpellingService spelling,
+                              @Value("${openfda.base-url:https://api.example.com}") String baseUrl,
+                              @Value("${openfda.batch.parallelism:8}") int batchParallelism,
+                              @Value("${openfda.batch.timeout-ms:6000}") long batchTimeoutMillis,
+                              @Value("${openfda.batch.max-upstream:10}") int batchMaxUpstream) {
+        this.httpClient = httpClient;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.mirror = mirror;
+        this.circuitBreaker = circuitBreaker;
+        this.quota = quota;
+        this.spelling = spelling;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refresher = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), r -> {
+            Thread thread = new Thread(r, "drug-search-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.baseUrl = baseUrl;
+        AtomicInteger lookupThreadCount = new AtomicInteger();
+        this.fanOut = new ThreadPoolExecutor(batchParallelism, batchParallelism, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256), r -> {
+            Thread thread = new Thread(r, "drug-lookup-" + lookupThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fanOut.allowCoreThreadTimeOut(true);
+        this.batchTimeoutMillis = batchTimeoutMillis;
+        this.batchMaxUpstream = Math.max(1, batchMaxUpstream);
+    }
+
     // Search for drugs by name using OpenFDA API
     public List<DrugResult> searchDrug(String name) {
+        return search(name).getResults();
+    }
+
+    // Same as searchDrug, but tells the caller whether results are degraded
+    public DrugSearchOutcome search(String name) {
+        String query = DrugQueryNormalizer.normalize(name);
+        if (query.isEmpty()) {
+            return DrugSearchOutcome.fresh(List.of());
+        }
+        // Upstream is only a fallback for names the mirror does not know
+        List<DrugResult> mirrored = mirror.search(query, SEARCH_LIMIT);
+        if (!mirrored.isEmpty()) {
+            return DrugSearchOutcome.fresh(mirrored);
+        }
+        Optional<List<DrugResult>> cached = cache.get(query);
+        if (cached.isPresent()) {
+            return DrugSearchOutcome.fresh(cached.get());
+        }
         try {
-            // Construct the API URL - placeholder endpoint for public repo
-            String url = "https://api.example.com/drug/label?search=generic_name:"
-                        + name + "+brand_name:" + name + "&limit=5";
-            // Make the API request and map the response
-            OpenFdaLabelResponse response = restTemplate.getForObject(url, OpenFdaLabelResponse.class);
-
-            if(response == null || response.getResults() == null) {
-                return List.of();
-            }
-            // Map results to DrugResult DTOs
-            return response.getResults().stream().map(this::mapToDto).toList();
-        } catch (HttpClientErrorException e) {
-            // If OpenFDA API returns 404 or any error, return empty list
-            // This allows frontend to show user-friendly "no results" message
-            return List.of();
+            // Cache misses for the same query share one upstream call, waiters get its outcome
+            return DrugSearchOutcome.fresh(coalescer.execute("search:" + query, () -> fetchAndCache(query, nameSearch(query), SEARCH_LIMIT)));
+        } catch (TimeoutException e) {
+            // Gave up waiting on another caller's upstream call
+            return degraded(query);
+        } catch (UpstreamException e) {
+            // OpenFDA errored, timed out, is saturated or the circuit is open
+            return degraded(query);
+        } catch (InterruptedException e) {
+            // Answer from what is cached and leave the flag for the request thread's owner
+            Thread.currentThread().interrupt();
+            return degraded(query);
         } catch (Exception e) {
-            // For any other errors, also return empty list
-            return List.of();
+            // For any other errors, also degrade (not cached, the next call retries)
+            return degraded(query);
+        }
+    }
+
+    // Whether a drug would be answered without going upstream, by name and by RxCUI (either may be null)
+    public boolean isWarm(String drugName, String rxcui) {
+        String query = DrugQueryNormalizer.normalize(drugName);
+        boolean nameWarm = query.isEmpty() || mirror.contains(query) || cache.contains(query);
+        boolean rxcuiWarm = rxcui == null || !isRxcui(rxcui.trim())
+                || mirror.containsRxcui(rxcui.trim()) || cache.contains(RXCUI_KEY + rxcui.trim());
+        return nameWarm && rxcuiWarm;
+    }
+
+    // Label for an RxCUI from the mirror or the cache, never calls upstream
+    public Optional<DrugResult> findLocallyByRxcui(String rxcui) {
+        String trimmed = rxcui.trim();
+        if (!isRxcui(trimmed)) {
+            return Optional.empty();
+        }
+        Optional<DrugResult> mirrored = mirror.findByRxcui(trimmed);
+        if (mirrored.isPresent()) {
+            return mirrored;
+        }
+        return cache.getStale(RXCUI_KEY + trimmed).flatMap(results -> results.stream().findFirst());
+    }
+
+    // Label details for many RxCUIs at once, keyed by RxCUI in request order. The mirror and
+    // cache answer what they can, the rest is fetched in parallel on the bounded fan-out pool,
+    // one small query per RxCUI, for at most batchTimeoutMillis. Past batchMaxUpstream uncached
+    // RxCUIs only stale entries are served. RxCUIs without a label, or that upstream could not
+    // answer and nothing was cached for, are left out
+    public Map<String, DrugResult> lookupByRxcui(Collection<String> rxcuis) {
+        List<String> wanted = new ArrayList<>(new LinkedHashSet<>(rxcuis.stream()
+                .filter(Objects::nonNull).map(String::trim).filter(OpenFdaDrugService::isRxcui).toList()));
+        DrugResult[] slots = new DrugResult[wanted.size()];
+        lookup(wanted, slots, new boolean[wanted.size()]);
+        Map<String, DrugResult> byRxcui = new LinkedHashMap<>();
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                byRxcui.put(wanted.get(i), slots[i]);
+            }
+        }
+        return byRxcui;
+    }
+
+    // One label by RxCUI like lookupByRxcui, also telling the caller whether it is the last known
+    // label served while upstream could not answer (STALE) or upstream could not answer and
+    // nothing was cached (UNAVAILABLE)
+    public DrugSearchOutcome lookupOneByRxcui(String rxcui) {
+        String trimmed = rxcui == null ? "" : rxcui.trim();
+        if (!isRxcui(trimmed)) {
+            return DrugSearchOutcome.fresh(List.of());
         }
+        DrugResult[] slot = new DrugResult[1];
+        boolean[] fellBack = new boolean[1];
+        lookup(List.of(trimmed), slot, fellBack);
+        if (!fellBack[0]) {
+            return DrugSearchOutcome.fresh(slot[0] == null ? List.of() : List.of(slot[0]));
+        }
+        return slot[0] == null ? DrugSearchOutcome.unavailable() : DrugSearchOutcome.stale(List.of(slot[0]));
     }
-    // Helper method to map API result to DrugResult DTO
-    private DrugResult mapToDto(OpenFdaLabelResponse.Result result) {
+
+    // Fills slots for the wanted RxCUIs, marking those only answered from the stale fallback
+    private void lookup(List<String> wanted, DrugResult[] slots, boolean[] fellBack) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < slots.length; i++) {
+            String rxcui = wanted.get(i);
+            Optional<DrugResult> mirrored = mirror.findByRxcui(rxcui);
+            if (mirrored.isPresent()) {
+                slots[i] = mirrored.get();
+                continue;
+            }
+            Optional<List<DrugResult>> cached = cache.get(RXCUI_KEY + rxcui);
+            if (cached.isPresent()) {
+                slots[i] = cached.get().isEmpty() ? null : cached.get().get(0);
+                continue;
+            }
+            missing.add(i);
+        }
+        while (missing.size() > batchMaxUpstream) {
+            int slot = missing.remove(missing.size() - 1);
+            slots[slot] = cache.getStale(RXCUI_KEY + wanted.get(slot)).flatMap(r -> r.stream().findFirst()).orElse(null);
+            fellBack[slot] = true;
+        }
+        if (!missing.isEmpty()) {
+            fetchRxcuis(wanted, missing, slots, fellBack);
+        }
+    }
+
+    private void fetchRxcuis(List<String> wanted, List<Integer> missing, DrugResult[] slots, boolean[] fellBack) {
+        List<CompletableFuture<List<DrugResult>>> calls = new ArrayList<>(missing.size());
+        for (int i : missing) {
+            String key = RXCUI_KEY + wanted.get(i);
+            String search = "openfda.rxcui:\"" + wanted.get(i) + "\"";
+            try {
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return coalescer.execute(key, () -> fetchAndCache(key, search, 1));
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, fanOut));
+            } catch (RejectedExecutionException e) {
+                calls.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture<?>[]::new)).get(batchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Some lookups failed or are still running, each slot is settled below
+        }
+        for (int n = 0; n < missing.size(); n++) {
+            int slot = missing.get(n);
+            CompletableFuture<List<DrugResult>> call = calls.get(n);
+            List<DrugResult> results = call.isDone() && !call.isCompletedExceptionally() ? call.join() : null;
+            if (results == null) {
+                // Unanswered in time, fall back to the last known label like search does
+                results = cache.getStale(RXCUI_KEY + wanted.get(slot)).orElse(List.of());
+                fellBack[slot] = true;
+            }
+            slots[slot] = results.isEmpty() ? null : results.get(0);
+        }
+    }
+
+    // Serves the last known results when there are any, the frontend still shows a
+    // user-friendly "no results" message otherwise
+    private DrugSearchOutcome degraded(String query) {
+        Optional<List<DrugResult>> stale = cache.getStale(query);
+        if (stale.isEmpty()) {
+            return DrugSearchOutcome.unavailable();
+        }
+        refreshInBackground(query);
+        return DrugSearchOutcome.stale(stale.get());
+    }
+
+    // At most one queued refresh per query. While the circuit is open the refresh fails fast,
+    // once it half-opens these refreshes are what probe upstream
+    private void refreshInBackground(String query) {
+        if (!refreshing.add(query)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    coalescer.execute("search:" + query, () -> fetchAndCache(query, nameSearch(query), SEARCH_LIMIT));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // shutting down
+                } catch (Exception e) {
+                    // Still unavailable, the stale entry stays until a later refresh succeeds
+                } finally {
+                    refreshing.remove(query);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(query);
+        }
+    }
+
+    // One upstream call for a search expression, the results are cached under key. Only what
+    // says something about upstream (connection errors, timeouts, 5xx, 429) counts against the
+    // circuit breaker, local failures such as a bad request or a body we cannot parse do not
+    private List<DrugResult> fetchAndCache(String key, String search, int limit) throws IOException {
+        // Before any permit is taken, a search that cannot be sent must not use quota
+        URI uri = searchUri(baseUrl, search, limit);
+        if (!circuitBreaker.tryAcquire()) {
+            throw new UpstreamException(UpstreamException.Reason.CIRCUIT_OPEN, "Drug label upstream circuit is open");
+        }
+        try {
+            quota.acquire();
+        } catch (UpstreamException e) {
+            circuitBreaker.onIgnored(); // out of quota, not upstream health
+            throw e;
+        }
+        byte[] body;
+        long start = System.nanoTime();
+        try {
+            body = httpClient.get(uri);
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+        } catch (UpstreamException e) {
+            if (e.isNotFound()) {
+                circuitBreaker.onSuccess(System.nanoTime() - start);
+                body = null; // OpenFDA answers 404 when nothing matches, cached as a negative result
+            } else if (isUpstreamFault(e)) {
+                circuitBreaker.onFailure();
+                throw e;
+            } else {
+                circuitBreaker.onIgnored(); // our own limits or a request upstream refused as invalid
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            circuitBreaker.onIgnored(); // failed on our side before anything was sent
+            throw e;
+        }
+        // Read only the fields DrugResult keeps, labels are large. A parse failure is left to the
+        // caller so it is never cached
+        List<DrugResult> results = body == null ? List.of() : OpenFdaLabelParser.parseResponse(body);
+        cache.put(key, results);
+        if (!key.startsWith(RXCUI_KEY)) {
+            cacheByRxcui(results);
+        }
+        spelling.learn(results);
+        return results;
+    }
+
+    // Search results are summaries, clients come back for a result's label sections by RxCUI.
+    // Caching each label under its RxCUI answers those requests without another upstream call
+    private void cacheByRxcui(List<DrugResult> results) {
+        for (DrugResult result : results) {
+            String rxcui = result.getRxcui();
+            if (rxcui != null && isRxcui(rxcui.trim()) && !cache.contains(RXCUI_KEY + rxcui.trim())) {
+                cache.put(RXCUI_KEY + rxcui.trim(), List.of(result));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        fanOut.shutdownNow();
+    }
+
+    // RxCUIs are numeric, anything else can never match and is not sent upstream
+    private static boolean isRxcui(String value) {
+        return !value.isEmpty() && value.length() <= 16 && value.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    // Quoted so multi-word names are matched as a phrase in either field
+    static String nameSearch(String query) {
+        String phrase = quoted(query);
+        return "generic_name:" + phrase + "+brand_name:" + phrase;
+    }
+
+    // A Lucene phrase, inside quotes only " and \ are special, so user input cannot end the
+    // phrase early and add clauses of its own
+    private static String quoted(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static boolean isUpstreamFault(UpstreamException e) {
+        return switch (e.getReason()) {
+            case IO, TIMEOUT -> true;
+            case HTTP_STATUS -> e.getStatusCode() >= 500 || e.getStatusCode() == 429;
+            default -> false;
+        };
+    }
+
+    // Built first and then encoded, so the search is never read as a URI template and braces
+    // in it are percent-encoded like any other character. '+' is left as is, openFDA uses it
+    // to separate clauses
+    static URI searchUri(String baseUrl, String search, int limit) {
+        return UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/drug/label")
+                .queryParam("search", search)
+                .queryParam("limit", limit)
+                .build()
+                .encode()
+                .toUri();
+    }
+
+    // Helper method to map a bound API result to DrugResult DTO. The request path uses
+    // OpenFdaLabelParser instead, this stays as the reference the parser must agree with
+    static DrugResult mapToDto(OpenFdaLabelResponse.Result result) {
         DrugResult dto = new DrugResult();
+        // Many labels in the bulk dataset carry no openfda section at all
+        OpenFdaLabelResponse.OpenFda openfda = result.getOpenfda() != null
+                ? result.getOpenfda() : new OpenFdaLabelResponse.OpenFda();
 
-        dto.setBrandName(first(result.getOpenfda().getBrand_name()));
-        dto.setGenericName(first(result.getOpenfda().getGeneric_name()));
+        dto.setBrandName(first(openfda.getBrand_name()));
+        dto.setGenericName(first(openfda.getGeneric_name()));
         dto.setPurpose(first(result.getPurpose()));
         dto.setIndications(first(result.getIndications_and_usage()));
         dto.setWarnings(first(result.getWarnings()));
         dto.setSideEffects(first(result.getAdverse_reactions()));
         dto.setDosage(first(result.getDosage_and_administration()));
-        dto.setRoute(first(result.getOpenfda().getRoute()));
-        dto.setRxcui(first(result.getOpenfda().getRxcui()));
+        dto.setRoute(first(openfda.getRoute()));
+        dto.setRxcui(first(openfda.getRxcui()));
 
         return dto;
     }
 
     // Helper to get the first element of a list or null if empty
-    private String first(List<String> list) {
+    private static String first(List<String> list) {
         return (list == null || list.isEmpty()) ? null : list.get(0);
     }
 }
-
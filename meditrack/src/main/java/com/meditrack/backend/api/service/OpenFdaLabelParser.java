@@ -0,0 +1,108 @@
+package com.meditrack.backend.api.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.meditrack.backend.api.dto.DrugResult;
+
+// Streaming, field-selective reader for OpenFDA label JSON. Builds DrugResult directly from
+// parser tokens: only the nine fields the DTO uses are decoded, every other section is skipped
+// without materializing strings, and each array is abandoned after its first element.
+// Produces the same DrugResult as binding OpenFdaLabelResponse and calling mapToDto
+final class OpenFdaLabelParser {
+
+    // Thread-safe and cheap to share, parsers themselves are per call
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private OpenFdaLabelParser() {
+    }
+
+    // Parses a /drug/label response body: {"meta": {...}, "results": [label, ...]}
+    static List<DrugResult> parseResponse(byte[] body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return List.of();
+            }
+            List<DrugResult> results = List.of();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    results = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        results.add(readLabel(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return results;
+        }
+    }
+
+    // Reads one label object, the parser must be positioned on its START_OBJECT.
+    // Leaves the parser on the matching END_OBJECT
+    static DrugResult readLabel(JsonParser parser) throws IOException {
+        DrugResult dto = new DrugResult();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "purpose" -> dto.setPurpose(firstOf(parser));
+                case "indications_and_usage" -> dto.setIndications(firstOf(parser));
+                case "warnings" -> dto.setWarnings(firstOf(parser));
+                case "adverse_reactions" -> dto.setSideEffects(firstOf(parser));
+                case "dosage_and_administration" -> dto.setDosage(firstOf(parser));
+                case "openfda" -> readOpenFda(parser, dto);
+                default -> parser.skipChildren();
+            }
+        }
+        return dto;
+    }
+
+    private static void readOpenFda(JsonParser parser, DrugResult dto) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "brand_name" -> dto.setBrandName(firstOf(parser));
+                case "generic_name" -> dto.setGenericName(firstOf(parser));
+                case "route" -> dto.setRoute(firstOf(parser));
+                case "rxcui" -> dto.setRxcui(firstOf(parser));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    // First element of a string array (or a bare string), skipping the rest of the array
+    private static String firstOf(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return token == JsonToken.VALUE_STRING ? parser.getText() : null;
+        }
+        String first = null;
+        JsonToken element = parser.nextToken();
+        if (element == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (element == JsonToken.VALUE_STRING) {
+            first = parser.getText();
+        } else {
+            parser.skipChildren();
+        }
+        // Remaining elements are tokenized but never decoded into Strings
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+        return first;
+    }
+}
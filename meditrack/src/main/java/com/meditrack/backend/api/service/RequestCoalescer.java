@@ -0,0 +1,90 @@
+package com.meditrack.backend.api.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Single-flight coalescing for upstream calls: concurrent callers with the same key share
+// one in-flight call. The first caller (the leader) runs it, everyone else waits on its result
+// for a bounded time. A failure is delivered to every waiter, nothing is retried here. An
+// interrupted caller gets InterruptedException with its interrupt flag still set
+@Component
+public class RequestCoalescer implements MeterBinder {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public RequestCoalescer(@Value("${openfda.coalescing.max-wait-ms:5000}") long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    // Keys should be namespaced by the caller, e.g. "search:ibuprofen"
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String key, Callable<V> call) throws Exception {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing == null) {
+            leaders.increment();
+            try {
+                V value = call.call();
+                mine.complete(value);
+                return value;
+            } catch (Throwable t) {
+                if (t instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                mine.completeExceptionally(t);
+                throw t;
+            } finally {
+                // Remove only our own future so a newer flight for the same key is left alone
+                inFlight.remove(key, mine);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return (V) existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw e;
+        } catch (InterruptedException e) {
+            // Callers degrade on any exception, the flag is what still tells their thread to stop
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            // Rethrow the leader's failure as-is so waiters handle it like they made the call
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("upstream.coalescing.leaders", leaders, LongAdder::sum)
+                .description("Calls that actually went upstream").register(registry);
+        FunctionCounter.builder("upstream.coalescing.saved", coalesced, LongAdder::sum)
+                .description("Calls that shared another caller's in-flight result").register(registry);
+        FunctionCounter.builder("upstream.coalescing.timeouts", timeouts, LongAdder::sum).register(registry);
+        Gauge.builder("upstream.coalescing.in.flight", inFlight, ConcurrentHashMap::size).register(registry);
+    }
+}
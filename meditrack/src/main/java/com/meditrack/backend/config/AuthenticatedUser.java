@@ -0,0 +1,34 @@
+package com.meditrack.backend.config;
+
+import java.security.Principal;
+
+// Principal JwtFilter puts in the SecurityContext, built from the verified token's claims so
+// handlers know who is calling without loading the user. getName() is the email, as before
+public final class AuthenticatedUser implements Principal {
+
+    private final Long userId;
+    private final String email;
+
+    public AuthenticatedUser(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[" + userId + "]";
+    }
+}
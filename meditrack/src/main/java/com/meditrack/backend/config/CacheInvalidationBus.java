@@ -0,0 +1,268 @@
+package com.meditrack.backend.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.meditrack.backend.Model.MedicationListVersion;
+import com.meditrack.backend.Model.User;
+import com.meditrack.backend.Model.UserMedication;
+import com.meditrack.backend.api.service.DrugInteractionService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+// Keeps the in-process caches of every instance coherent over Postgres LISTEN/NOTIFY, with no
+// broker of its own. Once a write to a user or medication commits, a NOTIFY goes out on the
+// channel, and every other instance evicts the matching second-level cache entries and cached
+// interaction reports. Hibernate cannot evict one key of a query region, so the whole
+// user-by-email or medications-by-user region is dropped. After a lost connection an instance
+// may have missed notifications and evicts everything once reconnected. Inactive on other
+// databases (H2 in development and tests), where there is only ever one instance
+@Component
+public class CacheInvalidationBus implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // LISTEN takes an identifier, not a bind parameter
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    // Reconnect delays double after each consecutive failure up to this cap
+    private static final long MAX_RECONNECT_MS = 60_000;
+
+    enum Kind { USER, MEDICATION }
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DrugInteractionService drugInteractionService;
+    private final boolean enabled;
+    private final String channel;
+    private final long reconnectMs;
+    // Tells this instance's own notifications apart, Hibernate already handled those writes locally
+    private final String origin = UUID.randomUUID().toString();
+
+    private volatile boolean active;
+    private volatile boolean running;
+    private Thread listener;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishFailures = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder handleFailures = new LongAdder();
+
+    public CacheInvalidationBus(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                DrugInteractionService drugInteractionService,
+                                @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${cache.invalidation.channel:meditrack_cache_invalidation}") String channel,
+                                @Value("${cache.invalidation.reconnect-ms:5000}") long reconnectMs) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.drugInteractionService = drugInteractionService;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.reconnectMs = reconnectMs;
+    }
+
+    // A user row changed, e.g. profile, password or email verification
+    public void userChanged(Long userId) {
+        publish(encode(origin, Kind.USER, userId, null));
+    }
+
+    // One of the user's medications was added, changed or removed
+    public void medicationChanged(Long userId, Long medicationId) {
+        publish(encode(origin, Kind.MEDICATION, userId, medicationId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                log.info("Cache invalidation bus inactive, the database is not Postgres");
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Cache invalidation bus inactive, could not reach the database: {}", e.getMessage());
+            return;
+        }
+        active = true;
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void publish(String payload) {
+        if (!active) {
+            return;
+        }
+        // Other instances must not reload the old row, so only notify once the write is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendNotify(payload);
+                }
+            });
+        } else {
+            sendNotify(payload);
+        }
+    }
+
+    private void sendNotify(String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+            published.increment();
+        } catch (SQLException e) {
+            // The write itself succeeded, other instances catch up when their entries expire
+            publishFailures.increment();
+            log.warn("Failed to publish cache invalidation {}: {}", payload, e.getMessage());
+        }
+    }
+
+    // Holds one pooled connection for LISTEN while running, reconnecting with backoff after any
+    // failure so that one bad notification or eviction never ends the listener thread
+    private void listen() {
+        boolean reconnected = false;
+        long delayMs = reconnectMs;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnected) {
+                    evictAll(); // notifications sent while disconnected are lost
+                    reconnected = false;
+                }
+                delayMs = reconnectMs;
+                log.info("Listening for cache invalidations on channel {}", channel);
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handleSafely(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                reconnected = true;
+                reconnects.increment();
+                log.warn("Cache invalidation listener failed, reconnecting in {} ms: {}", delayMs, e.toString());
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delayMs = Math.min(delayMs * 2, Math.max(reconnectMs, MAX_RECONNECT_MS));
+            }
+        }
+    }
+
+    // A notification that fails to apply is logged and skipped, the entries it named are left to
+    // expire on their own
+    private void handleSafely(String payload) {
+        try {
+            handle(payload);
+        } catch (RuntimeException e) {
+            handleFailures.increment();
+            log.warn("Failed to apply cache invalidation {}", payload, e);
+        }
+    }
+
+    // payload: origin|kind|userId|medicationId, unknown or malformed payloads are ignored
+    void handle(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4 || parts[0].equals(origin)) {
+            return;
+        }
+        received.increment();
+        try {
+            Kind kind = Kind.valueOf(parts[1]);
+            Long userId = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+            Long medicationId = parts[3].isEmpty() ? null : Long.valueOf(parts[3]);
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            switch (kind) {
+                case USER -> {
+                    if (userId != null) {
+                        cache.evictEntityData(User.class, userId);
+                    }
+                    cache.evictQueryRegion(EntityCacheConfig.USER_BY_EMAIL); // the email may have changed
+                }
+                case MEDICATION -> {
+                    if (medicationId != null) {
+                        cache.evictEntityData(UserMedication.class, medicationId);
+                    }
+                    cache.evictQueryRegion(EntityCacheConfig.MEDICATIONS_BY_USER);
+                    if (userId != null) {
+                        cache.evictEntityData(MedicationListVersion.class, userId); // the list's ETag
+                        drugInteractionService.invalidate(userId);
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed cache invalidation {}", payload);
+        }
+    }
+
+    private void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        drugInteractionService.invalidateAll();
+    }
+
+    static String encode(String origin, Kind kind, Long userId, Long medicationId) {
+        return origin + "|" + kind + "|" + (userId == null ? "" : userId) + "|" + (medicationId == null ? "" : medicationId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.invalidation.published", published, LongAdder::sum).register(registry);
+        FunctionCounter.builder("cache.invalidation.publish.failures", publishFailures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("cache.invalidation.received", received, LongAdder::sum).register(registry);
+        FunctionCounter.builder("cache.invalidation.reconnects", reconnects, LongAdder::sum).register(registry);
+        FunctionCounter.builder("cache.invalidation.handle.failures", handleFailures, LongAdder::sum).register(registry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+}
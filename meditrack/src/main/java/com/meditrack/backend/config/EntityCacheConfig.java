@@ -0,0 +1,91 @@
+package com.meditrack.backend.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Hibernate second-level cache for users, their medications, medication list versions and the
+// queries that look them up, over JCache with Ehcache on heap. Each region reads its own
+//   entity-cache.<region>.max-entries
+//   entity-cache.<region>.ttl-seconds
+// falling back to the defaults below. Hibernate keeps the regions correct on its own: saves and
+// deletes through JPA update the entity regions, and every write to a table marks the query
+// results over that table stale via the update-timestamps region, which therefore never expires.
+// Writes made outside Hibernate (psql, another service) are only picked up after the TTL.
+// With entity-cache.statistics=true (off by default, collecting costs every session) hit and
+// miss counts per region are published as hibernate.second.level.cache.* and
+// hibernate.cache.query.* meters
+@Configuration
+public class EntityCacheConfig {
+
+    // Region names, also referenced from @Cache and @QueryHints
+    public static final String USERS = "users";
+    public static final String USER_MEDICATIONS = "user-medications";
+    public static final String USER_BY_EMAIL = "user-by-email";
+    public static final String MEDICATIONS_BY_USER = "medications-by-user";
+    public static final String MEDICATION_LIST_VERSIONS = "medication-list-versions";
+
+    private static final String TIMESTAMPS = "default-update-timestamps-region";
+    private static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+
+    // Default {max entries, ttl seconds} per region
+    private static final Map<String, long[]> DEFAULTS = Map.of(
+            USERS, new long[] { 10_000, 600 },
+            USER_MEDICATIONS, new long[] { 50_000, 600 },
+            USER_BY_EMAIL, new long[] { 10_000, 600 },
+            MEDICATIONS_BY_USER, new long[] { 10_000, 600 },
+            MEDICATION_LIST_VERSIONS, new long[] { 10_000, 600 },
+            DEFAULT_QUERY_RESULTS, new long[] { 1_000, 600 });
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(Environment environment) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // A manager of our own per application context, the URI only names it
+        URI uri = URI.create("urn:meditrack:entity-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, new DefaultConfiguration(EntityCacheConfig.class.getClassLoader()));
+        DEFAULTS.forEach((region, defaults) -> {
+            long maxEntries = environment.getProperty("entity-cache." + region + ".max-entries", Long.class, defaults[0]);
+            long ttlSeconds = environment.getProperty("entity-cache." + region + ".ttl-seconds", Long.class, defaults[1]);
+            cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))));
+        });
+        // One timestamp per table, must outlive every query result it guards
+        cacheManager.createCache(TIMESTAMPS, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1_000))
+                        .withExpiry(ExpiryPolicyBuilder.noExpiration())));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager,
+                                                               @Value("${entity-cache.enabled:true}") boolean enabled,
+                                                               @Value("${entity-cache.statistics:false}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.meditrack.backend.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+// Cache-Control for public, non user-specific GET routes. Each route reads its own
+//   http.cache.<route>.max-age-seconds
+//   http.cache.<route>.stale-while-revalidate-seconds
+// falling back to the defaults the controller passes in. A max-age of 0 means browsers and
+// CDNs must revalidate every time, which is still cheap with an ETag
+@Component
+public class HttpCachePolicy {
+
+    private final Environment environment;
+    private final Map<String, CacheControl> policies = new ConcurrentHashMap<>();
+
+    public HttpCachePolicy(Environment environment) {
+        this.environment = environment;
+    }
+
+    public CacheControl forRoute(String route, long defaultMaxAgeSeconds, long defaultStaleWhileRevalidateSeconds) {
+        return policies.computeIfAbsent(route, r -> {
+            long maxAge = environment.getProperty("http.cache." + r + ".max-age-seconds", Long.class, defaultMaxAgeSeconds);
+            long staleWhileRevalidate = environment.getProperty("http.cache." + r + ".stale-while-revalidate-seconds",
+                    Long.class, defaultStaleWhileRevalidateSeconds);
+            if (maxAge <= 0) {
+                return CacheControl.noCache().cachePublic();
+            }
+            CacheControl policy = CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic();
+            return staleWhileRevalidate > 0 ? policy.staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidate)) : policy;
+        });
+    }
+}
@@ -3,6 +3,7 @@ package com.meditrack.backend.config;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.meditrack.backend.util.JwtUtil;
+import com.meditrack.backend.util.VerifiedJwt;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -54,32 +56,24 @@ public class JwtFilter extends OncePerRequestFilter { // Extends OncePerRequestF
         // Get the Authorization header from the request
         String authHeader = request.getHeader("Authorization");
 
-        String email = null;
-        String jwt = null;
-
-        // Check if the Authorization header is present and starts with "Bearer "
-        if(authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                // Extract email from the JWT token
-                email = jwtUtil.extractEmail(jwt);
-            } catch (Exception e) {
-                log.debug("Invalid JWT token: {}", e.getMessage());
-                // Invalid token
-            }
-        }
-
-        // If email is extracted and no authentication is set in the context, validate the token
-        if(email != null && SecurityContextHolder.getContext().getAuthentication() == null) { 
-            // Validate the token
-            if(jwtUtil.isTokenValid(jwt)) {
+        // Check if the Authorization header is present and starts with "Bearer ", and no authentication is set in the context
+        if(authHeader != null && authHeader.startsWith("Bearer ") && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authHeader.substring(7);
+            // Verify the token once, repeat requests with the same token are answered from a cache
+            Optional<VerifiedJwt> verified = jwtUtil.verify(jwt);
+            // Every token from JwtUtil.generateToken carries the userId claim
+            if(verified.isPresent() && verified.get().getUserId() != null) {
+                String email = verified.get().getEmail();
                 log.debug("Valid JWT token for user: {}", email);
-                // Set authentication in the security context
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList());
+                // Set authentication in the security context, the principal carries the user id so handlers need no user lookup
+                AuthenticatedUser principal = new AuthenticatedUser(verified.get().getUserId(), email);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
                 // Set details and update the security context
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 // finally set the authentication
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+            } else {
+                log.debug("Invalid or expired JWT token");
             }
         }
         // Continue the filter chain
@@ -1,58 +1,112 @@
 package com.meditrack.backend.config;
 
-import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.hash.Hashing;
+import com.meditrack.backend.util.ClientAddress;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+// Applies the first rate limit policy whose path prefix matches the request, see RateLimitPolicy
+// for the format. Runs after JwtFilter so principal-scoped policies can key on the user id.
+// All buckets live in one bounded TokenBucketStore.
+//   rate-limit.policies     the policies, in match order
+//   rate-limit.store-slots  buckets kept at once across all policies
+// Meters: rate.limit.allowed and rate.limit.rejected per policy, rate.limit.store.*
 @Component
-public class RateLimitFilter extends OncePerRequestFilter {
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
 
-    // Store rate limiters per IP address
-    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
-    
-    // 10 requests per minute = 10/60 = 0.1667 permits per second
-    private static final double PERMITS_PER_SECOND = 10.0 / 60.0;
+    private final List<RateLimitPolicy> policies;
+    private final TokenBucketStore store;
+    private final LongAdder[] allowed;
+    private final LongAdder[] rejected;
+
+    public RateLimitFilter(@Value("${rate-limit.policies:/auth/=ip:10/60,/api/drugs=principal:120/60,/user-medications=principal:300/60}") String policies,
+                           @Value("${rate-limit.store-slots:65536}") int storeSlots) {
+        this.policies = RateLimitPolicy.parseAll(policies);
+        this.store = new TokenBucketStore(storeSlots);
+        this.allowed = new LongAdder[this.policies.size()];
+        this.rejected = new LongAdder[this.policies.size()];
+        for (int i = 0; i < this.policies.size(); i++) {
+            allowed[i] = new LongAdder();
+            rejected[i] = new LongAdder();
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         String path = request.getRequestURI();
-        
-        // Apply rate limiting only to auth endpoints
-        if (path.startsWith("/auth/")) {
-            String clientIp = getClientIp(request);
-            RateLimiter limiter = limiters.computeIfAbsent(clientIp, 
-                k -> RateLimiter.create(PERMITS_PER_SECOND));
-            
-            if (!limiter.tryAcquire()) {
+        int index = policyFor(path);
+        if (index >= 0) {
+            RateLimitPolicy policy = policies.get(index);
+            long key = Hashing.murmur3_128().newHasher()
+                    .putInt(index)
+                    .putString(clientKey(policy, request), StandardCharsets.UTF_8)
+                    .hash().asLong();
+            long waitNanos = store.tryAcquire(key, policy.getIntervalNanos(), policy.getBurstNanos(), store.now());
+            if (waitNanos > 0) {
+                rejected[index].increment();
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
                 response.setContentType("application/json");
                 response.getWriter().write("{\"status\":\"error\",\"message\":\"Too many requests. Please try again later.\"}");
                 return;
             }
+            allowed[index].increment();
         }
-        
+
         filterChain.doFilter(request, response);
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
-        } else {
-            // X-Forwarded-For can contain multiple IPs, take the first one
-            ip = ip.split(",")[0].trim();
+    private int policyFor(String path) {
+        for (int i = 0; i < policies.size(); i++) {
+            if (policies.get(i).matches(path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The signed-in user for principal-scoped policies, otherwise the client address
+    private static String clientKey(RateLimitPolicy policy, HttpServletRequest request) {
+        if (policy.getScope() == RateLimitPolicy.Scope.PRINCIPAL) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                return "user:" + user.getUserId();
+            }
+        }
+        return "ip:" + ClientAddress.of(request);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < policies.size(); i++) {
+            String prefix = policies.get(i).getPathPrefix();
+            FunctionCounter.builder("rate.limit.allowed", allowed[i], LongAdder::sum).tag("policy", prefix).register(registry);
+            FunctionCounter.builder("rate.limit.rejected", rejected[i], LongAdder::sum).tag("policy", prefix).register(registry);
         }
-        return ip;
+        FunctionCounter.builder("rate.limit.store.evictions", store, TokenBucketStore::evictions).register(registry);
+        Gauge.builder("rate.limit.store.live", store, TokenBucketStore::liveSlots).register(registry);
+        Gauge.builder("rate.limit.store.capacity", store, TokenBucketStore::capacity).register(registry);
+        Gauge.builder("rate.limit.store.bytes", store, TokenBucketStore::footprintBytes).baseUnit("bytes").register(registry);
     }
 }
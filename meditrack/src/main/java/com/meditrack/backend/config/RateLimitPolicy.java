@@ -0,0 +1,72 @@
+package com.meditrack.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One rate limit rule: requests whose path starts with the prefix may make `permits` requests per
+// `periodSeconds`, all of them at once as a burst. Buckets are keyed by client address, or by the
+// signed-in user for the principal scope (falling back to the address for anonymous requests).
+// Written as prefix=scope:permits/seconds, several separated by commas, for example
+//   /auth/=ip:10/60,/api/drugs=principal:120/60
+final class RateLimitPolicy {
+
+    enum Scope { IP, PRINCIPAL }
+
+    private final String pathPrefix;
+    private final Scope scope;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    RateLimitPolicy(String pathPrefix, Scope scope, int permits, long periodSeconds) {
+        if (permits < 1 || periodSeconds < 1) {
+            throw new IllegalArgumentException("Rate limit for " + pathPrefix + " needs at least one permit and a period of at least one second");
+        }
+        this.pathPrefix = pathPrefix;
+        this.scope = scope;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(periodSeconds) / permits;
+        this.burstNanos = intervalNanos * permits;
+    }
+
+    static List<RateLimitPolicy> parseAll(String spec) {
+        List<RateLimitPolicy> policies = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            if (!entry.isBlank()) {
+                policies.add(parse(entry.trim()));
+            }
+        }
+        return policies;
+    }
+
+    static RateLimitPolicy parse(String entry) {
+        try {
+            int eq = entry.lastIndexOf('=');
+            int colon = entry.indexOf(':', eq);
+            int slash = entry.indexOf('/', colon);
+            return new RateLimitPolicy(entry.substring(0, eq).trim(),
+                    Scope.valueOf(entry.substring(eq + 1, colon).trim().toUpperCase()),
+                    Integer.parseInt(entry.substring(colon + 1, slash).trim()),
+                    Long.parseLong(entry.substring(slash + 1).trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid rate limit policy '" + entry + "', expected prefix=ip|principal:permits/seconds", e);
+        }
+    }
+
+    boolean matches(String path) {
+        return path.startsWith(pathPrefix);
+    }
+
+    // Getters
+    String getPathPrefix() {
+        return pathPrefix;
+    }
+    Scope getScope() {
+        return scope;
+    }
+    long getIntervalNanos() {
+        return intervalNanos;
+    }
+    long getBurstNanos() {
+        return burstNanos;
+    }
+}
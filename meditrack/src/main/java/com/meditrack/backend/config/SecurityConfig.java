@@ -6,6 +6,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.cors.CorsConfiguration;
@@ -38,22 +39,24 @@ public class SecurityConfig {
                     .requestMatchers("/auth/**").permitAll() // Allow unauthenticated access to auth endpoints
                     .requestMatchers("/h2-console/**").permitAll() // Allow access to H2 console
                     .requestMatchers("/api/medications/**", "/api/medications").permitAll() // Allow access to medications endpoints
+                    .requestMatchers("/api/drugs/by-rxcui").authenticated() // Batch lookups fan out upstream, signed-in users only
                     .requestMatchers("/api/drugs/**").permitAll() // Allow access to drug search endpoints
                     .requestMatchers("/api/auth/**").permitAll() // Allow access to auth endpoints
                     .requestMatchers("/actuator/**").permitAll() // Allow access to actuator endpoints (health checks)
                     .anyRequest().authenticated() // All other requests require authentication
             )
             .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin())) // Disable frame options for H2 console
-            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class) // Add rate limit filter first
-            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class); // Add JWT filter before username/password filter
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class) // Add JWT filter before username/password filter
+            .addFilterAfter(rateLimitFilter, JwtFilter.class); // Rate limit once the principal is known
 
         return http.build();
     }
 
-    // Password encoder bean for hashing passwords, used in UserService and AuthController
+    // Password encoder bean for hashing passwords, run through PasswordHashingService.
+    // Raising the strength rehashes existing passwords on their next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     // CORS configuration
@@ -71,6 +74,8 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Lets the frontend tell degraded drug search results apart
+        configuration.setExposedHeaders(Arrays.asList("X-Drug-Search-Degraded"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
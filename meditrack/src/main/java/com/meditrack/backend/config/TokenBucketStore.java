@@ -0,0 +1,177 @@
+package com.meditrack.backend.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size table of token buckets, three longs per slot and no objects per key, so memory is
+// set once at startup however many clients show up. Each bucket is a single long in GCRA form:
+// the theoretical arrival time (TAT) of the next request, in nanoseconds since the store was
+// created. A request is allowed while TAT, pushed on by one emission interval, stays within the
+// burst allowance of now, and the update is one CAS.
+// A bucket whose TAT has passed is full again and holds no information, so its slot is free for
+// any other key. That is the expiry, no sweeper is needed. Keys are 64-bit fingerprints looked up
+// by short linear probing. When every probed slot is in use, the one closest to full is taken
+// over and counted as an eviction, which can only ever give its old key more permits, never fewer.
+// Taking over a slot is the only write of a key. Claims for keys with the same home slot share a
+// lock stripe, so a key never lands in two slots, while claims elsewhere in the table go ahead
+// in parallel. Each claim takes the slot by moving its version to odd and back to even around
+// the key and TAT writes, seqlock style, so two stripes never take one slot at once and requests
+// never pair one key with another key's TAT. Requests for known keys take no lock
+final class TokenBucketStore {
+
+    private static final int PROBES = 8;
+    private static final int CLAIM_STRIPES = 64;
+
+    private final AtomicLongArray slots; // [3i] version, odd while claimed, [3i + 1] key fingerprint, [3i + 2] TAT
+    private final int mask;
+    private final long epochNanos;
+    private final LongAdder evictions = new LongAdder();
+    // Claim locks by home slot
+    private final Object[] claimLocks;
+
+    TokenBucketStore(int capacity) {
+        int size = Integer.highestOneBit(Math.max(PROBES, capacity - 1)) << 1;
+        this.slots = new AtomicLongArray(size * 3);
+        this.mask = size - 1;
+        this.claimLocks = new Object[Math.min(CLAIM_STRIPES, size)];
+        for (int i = 0; i < claimLocks.length; i++) {
+            claimLocks[i] = new Object();
+        }
+        // TAT 0 must always lie in the past
+        this.epochNanos = System.nanoTime() - 1;
+    }
+
+    long now() {
+        return System.nanoTime() - epochNanos;
+    }
+
+    // 0 when allowed, otherwise nanoseconds until the next request would be
+    long tryAcquire(long key, long intervalNanos, long burstNanos, long now) {
+        long fingerprint = key == 0 ? 1 : key;
+        while (true) {
+            int slot = find(fingerprint);
+            if (slot < 0) {
+                claim(fingerprint, now);
+                continue;
+            }
+            int base = slot * 3;
+            long version = slots.get(base);
+            if ((version & 1) != 0 || slots.get(base + 1) != fingerprint) {
+                Thread.onSpinWait(); // being claimed, or just taken over by another key
+                continue;
+            }
+            long tat = slots.get(base + 2);
+            if (slots.get(base) != version) {
+                continue;
+            }
+            long next = Math.max(tat, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            // A claim since the version check wrote a TAT this one never read, so the CAS fails
+            if (slots.compareAndSet(base + 2, tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private int find(long key) {
+        int start = home(key);
+        for (int p = 0; p < PROBES; p++) {
+            int slot = (start + p) & mask;
+            if (slots.get(slot * 3 + 1) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Moves a key that is not present into the first free probed slot, or the one closest to full
+    private void claim(long key, long now) {
+        int start = home(key);
+        synchronized (claimLocks[start % claimLocks.length]) {
+            while (true) {
+                if (find(key) >= 0) {
+                    return; // another thread claimed it for the same key meanwhile
+                }
+                int victim = -1;
+                long victimTat = Long.MAX_VALUE;
+                for (int p = 0; p < PROBES; p++) {
+                    int slot = (start + p) & mask;
+                    long tat = slots.get(slot * 3 + 2);
+                    if (tat <= now) {
+                        victim = slot;
+                        victimTat = tat;
+                        break;
+                    }
+                    if (tat < victimTat) {
+                        victim = slot;
+                        victimTat = tat;
+                    }
+                }
+                int base = victim * 3;
+                long version = slots.get(base);
+                if ((version & 1) != 0 || !slots.compareAndSet(base, version, version + 1)) {
+                    Thread.onSpinWait(); // a claim from another stripe has the slot, pick again
+                    continue;
+                }
+                if (slots.get(base + 2) > now) {
+                    evictions.increment(); // a live bucket of another key
+                }
+                slots.set(base + 1, key);
+                // Start full. Negative lies in the past, and unique per claim so no stale CAS can match it
+                slots.set(base + 2, -(version + 2));
+                slots.set(base, version + 2);
+                return;
+            }
+        }
+    }
+
+    // Number of slots holding the key, at most one
+    int slotsHolding(long key) {
+        int holding = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (slots.get(slot * 3 + 1) == key) {
+                holding++;
+            }
+        }
+        return holding;
+    }
+
+    // Slots currently holding a bucket that is not full
+    int liveSlots() {
+        long now = now();
+        int live = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (slots.get(slot * 3 + 2) > now) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    long footprintBytes() {
+        return (long) slots.length() * Long.BYTES;
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private int home(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    // Spreads fingerprints that differ only in high bits over the table
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
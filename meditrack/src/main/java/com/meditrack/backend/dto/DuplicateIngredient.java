@@ -0,0 +1,38 @@
+package com.meditrack.backend.dto;
+
+// Two tracked medications containing the same ingredient, e.g. a cold remedy and a painkiller
+// that both contain acetaminophen
+public class DuplicateIngredient {
+
+    private final Long medicationId;
+    private final String drugName;
+    private final Long otherMedicationId;
+    private final String otherDrugName;
+    private final String ingredient;
+
+    public DuplicateIngredient(Long medicationId, String drugName, Long otherMedicationId, String otherDrugName,
+                               String ingredient) {
+        this.medicationId = medicationId;
+        this.drugName = drugName;
+        this.otherMedicationId = otherMedicationId;
+        this.otherDrugName = otherDrugName;
+        this.ingredient = ingredient;
+    }
+
+    // Getters
+    public Long getMedicationId() {
+        return medicationId;
+    }
+    public String getDrugName() {
+        return drugName;
+    }
+    public Long getOtherMedicationId() {
+        return otherMedicationId;
+    }
+    public String getOtherDrugName() {
+        return otherDrugName;
+    }
+    public String getIngredient() {
+        return ingredient;
+    }
+}
@@ -0,0 +1,53 @@
+package com.meditrack.backend.dto;
+
+// A known interaction between an ingredient of one tracked medication and one of another
+public class MedicationInteraction {
+
+    private final Long medicationId;
+    private final String drugName;
+    private final String ingredient;
+    private final Long otherMedicationId;
+    private final String otherDrugName;
+    private final String otherIngredient;
+    private final String severity; // major, moderate or minor
+    private final String description;
+
+    public MedicationInteraction(Long medicationId, String drugName, String ingredient,
+                                 Long otherMedicationId, String otherDrugName, String otherIngredient,
+                                 String severity, String description) {
+        this.medicationId = medicationId;
+        this.drugName = drugName;
+        this.ingredient = ingredient;
+        this.otherMedicationId = otherMedicationId;
+        this.otherDrugName = otherDrugName;
+        this.otherIngredient = otherIngredient;
+        this.severity = severity;
+        this.description = description;
+    }
+
+    // Getters
+    public Long getMedicationId() {
+        return medicationId;
+    }
+    public String getDrugName() {
+        return drugName;
+    }
+    public String getIngredient() {
+        return ingredient;
+    }
+    public Long getOtherMedicationId() {
+        return otherMedicationId;
+    }
+    public String getOtherDrugName() {
+        return otherDrugName;
+    }
+    public String getOtherIngredient() {
+        return otherIngredient;
+    }
+    public String getSeverity() {
+        return severity;
+    }
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,23 @@
+package com.meditrack.backend.dto;
+
+import java.util.List;
+
+// Result of checking all of a user's medications against each other
+public class MedicationInteractionReport {
+
+    private final List<MedicationInteraction> interactions;
+    private final List<DuplicateIngredient> duplicates;
+
+    public MedicationInteractionReport(List<MedicationInteraction> interactions, List<DuplicateIngredient> duplicates) {
+        this.interactions = List.copyOf(interactions);
+        this.duplicates = List.copyOf(duplicates);
+    }
+
+    // Getters
+    public List<MedicationInteraction> getInteractions() {
+        return interactions;
+    }
+    public List<DuplicateIngredient> getDuplicates() {
+        return duplicates;
+    }
+}
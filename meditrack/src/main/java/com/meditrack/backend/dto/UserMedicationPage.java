@@ -0,0 +1,24 @@
+package com.meditrack.backend.dto;
+
+import java.util.List;
+
+// One page of a user's medications. nextCursor is passed back as ?cursor= for the following page
+// and is null on the last one
+public class UserMedicationPage {
+
+    private final List<UserMedicationResponse> items;
+    private final String nextCursor;
+
+    public UserMedicationPage(List<UserMedicationResponse> items, String nextCursor) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<UserMedicationResponse> getItems() {
+        return items;
+    }
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -11,12 +11,14 @@ public class UserMedicationResponse {
     private String frequency;
     private LocalDate startDate;
     private String instructions;
+    // Row version, sent back in If-Match when updating
+    private Long version;
 
     public UserMedicationResponse() {
     }
 
     // Constructor
-    public UserMedicationResponse(Long id, String drugName, String rxcui, String dosage, String frequency, LocalDate startDate, String instructions) {
+    public UserMedicationResponse(Long id, String drugName, String rxcui, String dosage, String frequency, LocalDate startDate, String instructions, Long version) {
         this.id = id;
         this.drugName = drugName;
         this.rxcui = rxcui;
@@ -24,6 +26,7 @@ public class UserMedicationResponse {
         this.frequency = frequency;
         this.startDate = startDate;
         this.instructions = instructions;
+        this.version = version;
     }
 
     // Getters
@@ -48,4 +51,7 @@ public class UserMedicationResponse {
     public String getInstructions() {
         return instructions;
     }
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,32 @@
+package com.meditrack.backend.repository;
+
+import com.meditrack.backend.Model.EmailOutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Locks a batch of due messages, skipping rows another dispatcher already holds
+    // (SELECT ... FOR UPDATE SKIP LOCKED, a lock timeout of -2 is Hibernate's skip-locked)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select m from EmailOutboxMessage m where m.status = com.meditrack.backend.Model.EmailOutboxMessage.Status.PENDING and m.nextAttemptAt <= :now order by m.id")
+    List<EmailOutboxMessage> claimDue(@Param("now") LocalDateTime now, Pageable page);
+
+    long countByStatus(EmailOutboxMessage.Status status);
+
+    @Query("select min(m.createdAt) from EmailOutboxMessage m where m.status = :status")
+    Optional<LocalDateTime> findOldestCreatedAt(@Param("status") EmailOutboxMessage.Status status);
+}
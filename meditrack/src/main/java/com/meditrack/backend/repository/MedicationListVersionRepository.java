@@ -0,0 +1,33 @@
+package com.meditrack.backend.repository;
+
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.meditrack.backend.Model.MedicationListVersion;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface MedicationListVersionRepository extends JpaRepository<MedicationListVersion, Long> {
+
+    // Row-locked for the rest of the transaction, so concurrent writes for one user bump in turn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from MedicationListVersion v where v.userId = :userId")
+    Optional<MedicationListVersion> lockByUserId(Long userId);
+
+    // Creates the user's row unless there is one. A concurrent insert of the same row makes this
+    // wait for it and then do nothing, where a plain insert would fail the transaction
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_medication_lists"))
+    @Query(value = "insert into user_medication_lists (user_id, version) values (:userId, 0) on conflict do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(Long userId);
+}
@@ -1,10 +1,19 @@
 package com.meditrack.backend.repository;
 
 import com.meditrack.backend.Model.UserMedication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.meditrack.backend.Model.User;
+import com.meditrack.backend.config.EntityCacheConfig;
+import com.meditrack.backend.dto.UserMedicationResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
 import java.util.*;
 
 //interface to allow for automatic generation of CRUD operations on UserMedication entity at runtime
@@ -13,8 +22,51 @@ import java.util.*;
 public interface UserMedicationRepository extends JpaRepository<UserMedication, Long>{
 
     //custom query method to find all UserMedication records associated with a specific userId
+    //results are kept in the second-level query cache until user_medications is written to
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.MEDICATIONS_BY_USER)
+    })
     List<UserMedication> findByUserId(Long userId);
 
+    // one page of a user's medications after the given id, oldest first. Keyset rather than offset,
+    // so a page is one range scan of idx_user_medications_user_id_id however deep the user scrolls.
+    // Null filters match everything, drugName is a lowercase LIKE pattern
+    @Query("select new com.meditrack.backend.dto.UserMedicationResponse(m.id, m.drugName, m.rxcui, m.dosage, "
+            + "m.frequency, m.startDate, m.instructions, m.version) from UserMedication m "
+            + "where m.user.id = :userId and m.id > :afterId "
+            + "and (:drugName is null or lower(m.drugName) like :drugName escape '!') "
+            + "and (:rxcui is null or m.rxcui = :rxcui) "
+            + "and (:startedFrom is null or m.startDate >= :startedFrom) "
+            + "and (:startedTo is null or m.startDate <= :startedTo) "
+            + "order by m.id")
+    List<UserMedicationResponse> findPageByUserId(@Param("userId") Long userId, @Param("afterId") long afterId,
+                                                  @Param("drugName") String drugName, @Param("rxcui") String rxcui,
+                                                  @Param("startedFrom") LocalDate startedFrom,
+                                                  @Param("startedTo") LocalDate startedTo, Pageable pageable);
+
     // fetch all medications for a specific User entity
     List<UserMedication> findByUser(User user);
+
+    // how many trackers reference each drug name, used to rank drug name suggestions
+    @Query("select m.drugName as drugName, count(m) as uses from UserMedication m group by m.drugName")
+    List<DrugNameUsage> countUsesByDrugName();
+
+    // projection for the aggregate above
+    interface DrugNameUsage {
+        String getDrugName();
+        long getUses();
+    }
+
+    // distinct tracked drugs, most tracked first, used to warm the drug search cache
+    @Query("select m.rxcui as rxcui, m.drugName as drugName, count(m) as uses from UserMedication m "
+            + "group by m.rxcui, m.drugName order by count(m) desc")
+    List<TrackedDrug> findTrackedDrugs(Pageable pageable);
+
+    // projection for the aggregate above
+    interface TrackedDrug {
+        String getRxcui();
+        String getDrugName();
+        long getUses();
+    }
 }
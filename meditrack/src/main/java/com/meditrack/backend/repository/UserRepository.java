@@ -2,10 +2,18 @@ package com.meditrack.backend.repository;
 
 import com.meditrack.backend.Model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import com.meditrack.backend.config.EntityCacheConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.Optional;
 
 //extends JpaRepository gives CRUD operations uses 2 parameters - Entity type for which we are creating repo for and PK of that entity
 public interface UserRepository extends JpaRepository<User, Long> {
-    //custom query method to find user by email
+    //custom query method to find user by email, cached until the users table is written to
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.USER_BY_EMAIL)
+    })
     Optional<User> findByEmail(String email);
 }
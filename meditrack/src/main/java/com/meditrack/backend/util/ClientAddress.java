@@ -0,0 +1,16 @@
+package com.meditrack.backend.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Address of the calling client. X-Forwarded-For is never read here: any client can send it.
+// Behind a reverse proxy Tomcat resolves the remote address from the hops its trusted proxies
+// added (server.forward-headers-strategy=native), so getRemoteAddr is already the client's
+public final class ClientAddress {
+
+    private ClientAddress() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,130 @@
+package com.meditrack.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// A template parsed once into alternating literal and variable segments, so rendering is only
+// appends. Syntax:
+//   {{name}}      value of name from the model, HTML-escaped when the template is HTML
+//   {{>partial}}  another template inlined at compile time, sharing the same model
+// Rendering into a caller-supplied StringBuilder lets callers reuse one buffer per thread
+public final class CompiledTemplate {
+
+    private final String name;
+    private final boolean html;
+    // literals.length == variables.length + 1, output is literals[0] var[0] literals[1] ...
+    private final String[] literals;
+    private final String[] variables;
+
+    private CompiledTemplate(String name, boolean html, String[] literals, String[] variables) {
+        this.name = name;
+        this.html = html;
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    // Parses source, resolving partials by name through the given function (null when unknown)
+    public static CompiledTemplate compile(String name, String source, boolean html, Function<String, CompiledTemplate> partials) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                literal.append(source, pos, source.length());
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed {{ in template " + name + " at offset " + open);
+            }
+            literal.append(source, pos, open);
+            String tag = source.substring(open + 2, close).trim();
+            if (tag.startsWith(">")) {
+                String partialName = tag.substring(1).trim();
+                CompiledTemplate partial = partials.apply(partialName);
+                if (partial == null) {
+                    throw new IllegalArgumentException("Template " + name + " includes unknown partial " + partialName);
+                }
+                // Splice the partial's segments in, merging literals at the seams
+                literal.append(partial.literals[0]);
+                for (int i = 0; i < partial.variables.length; i++) {
+                    literals.add(literal.toString());
+                    variables.add(partial.variables[i]);
+                    literal.setLength(0);
+                    literal.append(partial.literals[i + 1]);
+                }
+            } else {
+                if (tag.isEmpty()) {
+                    throw new IllegalArgumentException("Empty {{}} in template " + name + " at offset " + open);
+                }
+                literals.add(literal.toString());
+                variables.add(tag);
+                literal.setLength(0);
+            }
+            pos = close + 2;
+        }
+        literals.add(literal.toString());
+        return new CompiledTemplate(name, html, literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    // Appends the rendered template to out, throws when the model lacks a variable
+    public void renderTo(Map<String, String> model, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            String value = model.get(variables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Template " + name + " needs a value for " + variables[i]);
+            }
+            if (html) {
+                escapeHtml(value, out);
+            } else {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public String render(Map<String, String> model) {
+        StringBuilder out = new StringBuilder(estimatedLength());
+        renderTo(model, out);
+        return out.toString();
+    }
+
+    // Literal length, the rendered size is this plus the values
+    public int estimatedLength() {
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        return length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Copies runs of safe characters in one append and replaces the five HTML-special ones
+    static void escapeHtml(String value, StringBuilder out) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement;
+            switch (value.charAt(i)) {
+                case '&' -> replacement = "&amp;";
+                case '<' -> replacement = "&lt;";
+                case '>' -> replacement = "&gt;";
+                case '"' -> replacement = "&quot;";
+                case '\'' -> replacement = "&#39;";
+                default -> {
+                    continue;
+                }
+            }
+            out.append(value, start, i).append(replacement);
+            start = i + 1;
+        }
+        out.append(value, start, value.length());
+    }
+}
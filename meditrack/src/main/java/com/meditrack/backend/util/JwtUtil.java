@@ -1,27 +1,66 @@
 package com.meditrack.backend.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.meditrack.backend.Model.User;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.security.Key;
 
 @Component // marks this class as a Spring component, making it eligible for component scanning and dependency injection
-public class JwtUtil {
-    
-    // Injecting values from application properties
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+public class JwtUtil implements MeterBinder {
+
+    // Expiration time of new tokens in milliseconds
+    private final long EXPIRATION_TIME;
+
+    // The signing key and parser are built once, both are immutable and thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    // Injecting expiration time from application properties
-    @Value("${jwt.expiration}")
-    private long EXPIRATION_TIME;
+    // Already verified tokens by SHA-256 digest, so repeat requests with the same token skip the
+    // HMAC check and claims parsing. Entries never outlive their token's expiry
+    private final Cache<HashCode, VerifiedJwt> verified;
+    private final LongAdder rejected = new LongAdder();
 
-    // Method to get the signing key for JWT, converts the secret key string to a Key object
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes()); // getBytes() converts the string to a byte array, then hmacShaKeyFor creates a Key suitable for HMAC-SHA algorithms
+    // Wall clock in milliseconds used for issuing, parsing and cached expiry checks
+    private final LongSupplier millisClock;
+
+    // Injecting values from application properties
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secretKey,
+                   @Value("${jwt.expiration}") long expirationTime,
+                   @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                   @Value("${jwt.cache.ttl-seconds:300}") long cacheTtlSeconds) {
+        this(secretKey, expirationTime, cacheMaxSize, cacheTtlSeconds, System::currentTimeMillis);
+    }
+
+    JwtUtil(String secretKey, long expirationTime, long cacheMaxSize, long cacheTtlSeconds, LongSupplier millisClock) {
+        this.EXPIRATION_TIME = expirationTime;
+        this.millisClock = millisClock;
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes()); // getBytes() converts the string to a byte array, then hmacShaKeyFor creates a Key suitable for HMAC-SHA algorithms
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> new Date(millisClock.getAsLong()))
+                .build();
+        this.verified = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
     }
 
     // Method to generate a JWT token for a given user
@@ -35,58 +74,84 @@ public class JwtUtil {
     }
 
     // Method to create a JWT token with given claims and subject
-    public String createToken(Map<String, Object> claims, String subject) { 
+    public String createToken(Map<String, Object> claims, String subject) {
         // current time in milliseconds
-        long now = System.currentTimeMillis();
+        long now = millisClock.getAsLong();
         // Building the JWT token with claims, subject, issued time, expiration time, and signing it with the secret key
         return Jwts.builder()
                 .setClaims(claims) // custom claims like userId
                 .setSubject(subject) // identifies the principal that is the subject of the JWT
                 .setIssuedAt(new Date(now)) // token creation time
                 .setExpiration(new Date(now + EXPIRATION_TIME)) // token expiration time
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // signing the token with the secret key using HS256 algorithm
+                .signWith(signingKey, SignatureAlgorithm.HS256) // signing the token with the secret key using HS256 algorithm
                 .compact(); // builds the JWT and serializes it to a compact, URL-safe string
     }
 
+    // Verifies a token once and returns its claims, empty when the signature is wrong, the token
+    // is malformed or it has expired. This is the per-request path used by JwtFilter
+    public Optional<VerifiedJwt> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        VerifiedJwt cached = verified.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired(millisClock.getAsLong())) {
+                return Optional.of(cached);
+            }
+            verified.invalidate(digest);
+            rejected.increment();
+            return Optional.empty();
+        }
+        try {
+            VerifiedJwt claims = parse(token);
+            verified.put(digest, claims);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            // any exception during parsing indicates the token is invalid, those are never cached
+            rejected.increment();
+            return Optional.empty();
+        }
+    }
+
+    // One full parse: signature, expiry and claims. Throws when the token is invalid
+    VerifiedJwt parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        return new VerifiedJwt(claims.getSubject(), claims.get("userId", Long.class),
+                expiration == null ? Long.MAX_VALUE : expiration.getTime());
+    }
+
     // Method to extract email (subject) from the JWT token
     public String extractEmail(String token) {
-        return Jwts.parserBuilder() // creates a new JwtParserBuilder
-                .setSigningKey(getSigningKey()) // sets the signing key to validate the token's signature
-                .build() // builds the JwtParser
-                .parseClaimsJws(token) // parses the JWT and verifies its signature
+        return parser.parseClaimsJws(token) // parses the JWT and verifies its signature
                 .getBody() // retrieves the body of the JWT, which contains the claims
                 .getSubject(); // extracts the subject (email) from the claims
     }
 
     // Method to check if the JWT token has expired
     public boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey()) // sets the signing key to validate the token's signature
-                .build() 
-                .parseClaimsJws(token)
+        Date expiration = parser.parseClaimsJws(token)
                 .getBody()
                 .getExpiration();
-        return expiration.before(new Date());
+        return expiration.before(new Date(millisClock.getAsLong()));
     }
 
     // Method to validate the JWT token against a given user
     public boolean validateToken(String token, User user) {
-        String email = extractEmail(token); // extract email from token
-        return (email.equals(user.getEmail()) && !isTokenExpired(token)); // check if email matches and token is not expired
+        return verify(token).map(jwt -> jwt.getEmail().equals(user.getEmail())).orElse(false); // check if email matches and token is not expired
     }
 
     // Overloaded method to validate token without user object
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token); // if parsing is successful, token is valid
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // any exception during parsing indicates the token is invalid
-            return false;
-        }
+        return verify(token).isPresent();
     }
-}
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.verify.cache.hits", verified, c -> c.stats().hitCount()).register(registry);
+        FunctionCounter.builder("jwt.verify.cache.misses", verified, c -> c.stats().missCount()).register(registry);
+        FunctionCounter.builder("jwt.verify.rejected", rejected, LongAdder::sum).register(registry);
+        Gauge.builder("jwt.verify.cache.size", verified, Cache::size).register(registry);
+    }
+}
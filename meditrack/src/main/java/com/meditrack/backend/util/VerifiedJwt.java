@@ -0,0 +1,30 @@
+package com.meditrack.backend.util;
+
+// Claims of an access token whose signature and expiry have been checked
+public final class VerifiedJwt {
+
+    private final String email;
+    private final Long userId;
+    private final long expiresAtMillis;
+
+    VerifiedJwt(String email, Long userId, long expiresAtMillis) {
+        this.email = email;
+        this.userId = userId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    // Getters
+    public String getEmail() {
+        return email;
+    }
+    public Long getUserId() {
+        return userId;
+    }
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,7 @@
+-- Shared token buckets for third-party API quotas, one row per upstream
+
+CREATE TABLE upstream_quota (
+    name VARCHAR(64) PRIMARY KEY,
+    tokens DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,19 @@
+-- Transactional outbox for outgoing email, written with the change that triggers it and
+-- sent by a background dispatcher
+
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    to_email VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    html TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+    provider_id VARCHAR(255),
+    last_error VARCHAR(1000)
+);
+
+-- The dispatcher only ever scans pending rows that are due
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at, id) WHERE status = 'PENDING';
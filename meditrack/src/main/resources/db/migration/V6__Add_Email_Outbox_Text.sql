@@ -0,0 +1,3 @@
+-- Plain-text alternate of each outgoing email
+
+ALTER TABLE email_outbox ADD COLUMN text_body TEXT;
@@ -0,0 +1,7 @@
+-- Keyset pages of a user's medications (user_id = ? AND id > ? ORDER BY id) read one range of
+-- this index in id order, so no sort is needed and a page stops after its limit. The rows
+-- themselves are still read from the table, every column is selected. The user_id prefix also
+-- serves the old single-column index, which is dropped
+
+CREATE INDEX idx_user_medications_user_id_id ON user_medications(user_id, id);
+DROP INDEX idx_user_medications_user_id;
@@ -0,0 +1,12 @@
+-- Optimistic locking for medication rows (If-Match on PATCH), and a per-user version of the
+-- whole medication list that the list endpoints use as their ETag
+
+ALTER TABLE user_medications ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE user_medication_lists (
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_user_medication_lists_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO user_medication_lists (user_id) SELECT id FROM users;
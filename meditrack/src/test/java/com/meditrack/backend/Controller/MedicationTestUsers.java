@@ -0,0 +1,45 @@
+package com.meditrack.backend.Controller;
+
+import java.time.LocalDate;
+
+import org.springframework.boot.test.context.TestComponent;
+
+import com.meditrack.backend.Model.User;
+import com.meditrack.backend.Model.UserMedication;
+import com.meditrack.backend.Service.UserMedicationService;
+import com.meditrack.backend.repository.UserRepository;
+import com.meditrack.backend.util.JwtUtil;
+
+// Users and medications for the /user-medications tests, saved the way the app saves them;
+// pull it in with @Import(MedicationTestUsers.class)
+@TestComponent
+class MedicationTestUsers {
+
+	private final UserRepository userRepository;
+	private final UserMedicationService userMedicationService;
+	private final JwtUtil jwtUtil;
+
+	MedicationTestUsers(UserRepository userRepository, UserMedicationService userMedicationService, JwtUtil jwtUtil) {
+		this.userRepository = userRepository;
+		this.userMedicationService = userMedicationService;
+		this.jwtUtil = jwtUtil;
+	}
+
+	// the email is unique per call since the context, and its database, outlive each test
+	User saveUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name.toLowerCase() + "-" + System.nanoTime() + "@example.com");
+		user.setPassword("not-a-real-hash");
+		return userRepository.save(user);
+	}
+
+	// through the service, which also creates the list version the ETag is read from
+	UserMedication saveMedication(User user, String drugName, String rxcui, String dosage, String frequency, LocalDate startDate) {
+		return userMedicationService.save(new UserMedication(drugName, rxcui, dosage, frequency, startDate, null, user));
+	}
+
+	String tokenFor(User user) {
+		return jwtUtil.generateToken(user);
+	}
+}
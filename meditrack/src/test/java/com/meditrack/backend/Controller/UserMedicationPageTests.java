@@ -0,0 +1,102 @@
+package com.meditrack.backend.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.Model.User;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(MedicationTestUsers.class)
+class UserMedicationPageTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private MedicationTestUsers users;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		User user = users.saveUser("ada");
+		for (int i = 0; i < 5; i++) {
+			users.saveMedication(user, "Ibuprofen " + i, "5640", "200mg", "Daily", LocalDate.of(2024, 1 + i, 1));
+		}
+		users.saveMedication(user, "Warfarin", "11289", "5mg", "Daily", LocalDate.of(2023, 6, 1));
+		users.saveMedication(user, "100%_Aloe", "1", "1 drop", "Daily", null);
+		// someone else's medication never shows up
+		users.saveMedication(users.saveUser("grace"), "Ibuprofen", "5640", "200mg", "Daily", null);
+		token = users.tokenFor(user);
+	}
+
+	@Test
+	void walksAllPagesInIdOrder() throws Exception {
+		List<String> names = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = page(get("/user-medications/me/page").param("limit", "3").param("cursor", cursor));
+			page.path("items").forEach(item -> names.add(item.path("drugName").asText()));
+			cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(List.of("Ibuprofen 0", "Ibuprofen 1", "Ibuprofen 2", "Ibuprofen 3", "Ibuprofen 4", "Warfarin", "100%_Aloe"), names);
+	}
+
+	@Test
+	void filtersByDrugNameRxcuiAndStartDate() throws Exception {
+		JsonNode byName = page(get("/user-medications/me/page").param("drugName", "IBU").param("startedFrom", "2024-02-01").param("startedTo", "2024-04-30"));
+		assertEquals(3, byName.path("items").size());
+		assertEquals("Ibuprofen 1", byName.path("items").get(0).path("drugName").asText());
+		assertNull(byName.path("nextCursor").textValue());
+
+		assertEquals(1, page(get("/user-medications/me/page").param("rxcui", "11289")).path("items").size());
+		// LIKE wildcards in the fragment are matched literally
+		assertEquals(1, page(get("/user-medications/me/page").param("drugName", "%_")).path("items").size());
+	}
+
+	@Test
+	void clampsTheLimitAndRejectsForgedCursors() throws Exception {
+		assertEquals(7, page(get("/user-medications/me/page").param("limit", "100000")).path("items").size());
+		mockMvc.perform(get("/user-medications/me/page").param("cursor", "not a cursor").header("Authorization", "Bearer " + token))
+				.andExpect(status().isBadRequest());
+
+		// even with the list's current ETag
+		String etag = mockMvc.perform(get("/user-medications/me/page").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		mockMvc.perform(get("/user-medications/me/page").param("cursor", "not a cursor")
+						.header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+				.andExpect(status().isBadRequest());
+	}
+
+	private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items").isArray())
+				.andReturn().getResponse().getContentAsString();
+		return mapper.readTree(body);
+	}
+}
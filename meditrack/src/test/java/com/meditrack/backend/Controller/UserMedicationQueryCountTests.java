@@ -0,0 +1,80 @@
+package com.meditrack.backend.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.meditrack.backend.Model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// SQL statements per GET /user-medications/me. Before the principal carried the user id and the
+// second-level cache existed, every call ran two (user by email, then medications by user). The
+// list version behind the ETag is cached as well, so a warm list still runs none
+@SpringBootTest(properties = {
+		"entity-cache.statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN" })
+@AutoConfigureMockMvc
+@Import(MedicationTestUsers.class)
+class UserMedicationQueryCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private MedicationTestUsers users;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private String token;
+	private Long medicationId;
+
+	@BeforeEach
+	void setUp() {
+		User user = users.saveUser("Ada");
+		users.saveMedication(user, "Ibuprofen", "5640", "200mg", "Twice a day", null);
+		medicationId = users.saveMedication(user, "Warfarin", "11289", "5mg", "Daily", null).getId();
+		token = users.tokenFor(user);
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void repeatListIsServedFromSecondLevelCache() throws Exception {
+		assertEquals(1, statementsFor(() -> listMine(2)), "cold: medications by user id only");
+		assertEquals(0, statementsFor(() -> listMine(2)), "warm: query and entity regions");
+
+		// A delete invalidates the cached query result, the next list goes to the database again
+		mockMvc.perform(delete("/user-medications/" + medicationId).header("Authorization", "Bearer " + token))
+				.andExpect(status().isNoContent());
+		assertEquals(1, statementsFor(() -> listMine(1)));
+		assertEquals(0, statementsFor(() -> listMine(1)));
+	}
+
+	private void listMine(int expected) throws Exception {
+		mockMvc.perform(get("/user-medications/me").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(expected));
+	}
+
+	private long statementsFor(Request request) throws Exception {
+		statistics.clear();
+		request.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+	private interface Request {
+		void run() throws Exception;
+	}
+}
@@ -0,0 +1,90 @@
+package com.meditrack.backend.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.meditrack.backend.Model.User;
+
+// ETag and If-None-Match on the medication list, If-Match on updates
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(MedicationTestUsers.class)
+class UserMedicationVersionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private MedicationTestUsers users;
+
+	private String token;
+	private Long medicationId;
+
+	@BeforeEach
+	void setUp() {
+		User user = users.saveUser("Ada");
+		medicationId = users.saveMedication(user, "Warfarin", "11289", "5mg", "Daily", null).getId();
+		token = users.tokenFor(user);
+	}
+
+	@Test
+	void unchangedListIsNotModifiedUntilAWrite() throws Exception {
+		String etag = mockMvc.perform(get("/user-medications/me").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/user-medications/me").header("Authorization", "Bearer " + token).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/user-medications/me/page").header("Authorization", "Bearer " + token).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(delete("/user-medications/" + medicationId).header("Authorization", "Bearer " + token))
+				.andExpect(status().isNoContent());
+		String after = mockMvc.perform(get("/user-medications/me").header("Authorization", "Bearer " + token).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(0))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, after);
+	}
+
+	@Test
+	void updateFromAStaleVersionIsRejected() throws Exception {
+		mockMvc.perform(patchDosage("10mg", "\"0\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+				.andExpect(jsonPath("$.version").value(1));
+
+		// a second client still holding version 0
+		mockMvc.perform(patchDosage("2mg", "\"0\""))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+		mockMvc.perform(patchDosage("2mg", "\"1\"")).andExpect(status().isOk());
+		// without If-Match the last write wins, as before
+		mockMvc.perform(patchDosage("3mg", null)).andExpect(status().isOk());
+	}
+
+	private MockHttpServletRequestBuilder patchDosage(String dosage, String ifMatch) {
+		MockHttpServletRequestBuilder request = patch("/user-medications/" + medicationId)
+				.header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"dosage\":\"" + dosage + "\"}");
+		return ifMatch == null ? request : request.header(HttpHeaders.IF_MATCH, ifMatch);
+	}
+}
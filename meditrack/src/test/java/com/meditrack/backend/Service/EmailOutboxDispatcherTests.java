@@ -0,0 +1,170 @@
+package com.meditrack.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.Model.EmailOutboxMessage;
+import com.meditrack.backend.repository.EmailOutboxRepository;
+import com.sun.net.httpserver.HttpServer;
+
+// Drives the dispatcher against a local stand-in for Resend's batch endpoint
+@SpringBootTest
+class EmailOutboxDispatcherTests {
+
+	private static final HttpServer fakeResend = startFakeResend();
+	private static final List<JsonNode> batches = new CopyOnWriteArrayList<>();
+	private static volatile int status = 200;
+	private static volatile Runnable onBatch = () -> { };
+
+	@Autowired
+	private EmailService emailService;
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@DynamicPropertySource
+	static void resendUrl(DynamicPropertyRegistry registry) {
+		registry.add("resend.api.url", () -> "http://localhost:" + fakeResend.getAddress().getPort());
+	}
+
+	@BeforeEach
+	void clear() {
+		outboxRepository.deleteAll();
+		batches.clear();
+		status = 200;
+		onBatch = () -> { };
+	}
+
+	@AfterAll
+	static void stop() {
+		fakeResend.stop(0);
+	}
+
+	@Test
+	void sendsQueuedEmailsInOneBatch() {
+		emailService.sendPasswordChangeNotification("ada@example.com");
+		emailService.sendPasswordChangeNotification("grace@example.com");
+		emailService.sendPasswordResetEmail("alan@example.com", "token-123");
+
+		assertEquals(3, dispatcher.dispatchOnce());
+
+		assertEquals(1, batches.size());
+		assertEquals(3, batches.get(0).size());
+		assertEquals("grace@example.com", batches.get(0).get(1).path("to").get(0).asText());
+		assertTrue(batches.get(0).get(2).path("html").asText().contains("token-123"));
+		for (EmailOutboxMessage message : outboxRepository.findAll()) {
+			assertEquals(EmailOutboxMessage.Status.SENT, message.getStatus());
+			assertTrue(message.getProviderId().startsWith("email-"));
+		}
+		assertEquals(0, dispatcher.dispatchOnce());
+	}
+
+	@Test
+	void backsOffAfterAFailedBatch() {
+		status = 503;
+		emailService.sendPasswordChangeNotification("ada@example.com");
+
+		assertEquals(1, dispatcher.dispatchOnce());
+
+		EmailOutboxMessage message = outboxRepository.findAll().get(0);
+		assertEquals(EmailOutboxMessage.Status.PENDING, message.getStatus());
+		assertEquals(1, message.getAttempts());
+		assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now()));
+		// not due yet, so the next round leaves it alone
+		status = 200;
+		assertEquals(0, dispatcher.dispatchOnce());
+	}
+
+	@Test
+	void sendsWithTheClaimCommittedAsALease() {
+		emailService.sendPasswordChangeNotification("ada@example.com");
+		List<EmailOutboxMessage> duringSend = new CopyOnWriteArrayList<>();
+		onBatch = () -> duringSend.addAll(outboxRepository.findAll());
+
+		assertEquals(1, dispatcher.dispatchOnce());
+
+		// The claim was committed before the call, so other dispatchers see the message as not due
+		assertEquals(EmailOutboxMessage.Status.PENDING, duringSend.get(0).getStatus());
+		assertTrue(duringSend.get(0).getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(5)));
+		assertEquals(EmailOutboxMessage.Status.SENT, outboxRepository.findAll().get(0).getStatus());
+	}
+
+	@Test
+	void retriesWhenResendRefusesTheApiKey() {
+		status = 401;
+		emailService.sendPasswordChangeNotification("ada@example.com");
+
+		assertEquals(1, dispatcher.dispatchOnce());
+
+		EmailOutboxMessage message = outboxRepository.findAll().get(0);
+		assertEquals(EmailOutboxMessage.Status.PENDING, message.getStatus());
+		assertEquals(1, message.getAttempts());
+	}
+
+	@Test
+	void givesUpOnTheMessageResendRejects() {
+		emailService.sendPasswordChangeNotification("ada@example.com");
+		emailService.sendPasswordChangeNotification("not-an-address");
+
+		assertEquals(2, dispatcher.dispatchOnce());
+
+		for (EmailOutboxMessage message : outboxRepository.findAll()) {
+			EmailOutboxMessage.Status expected = message.getToEmail().contains("@")
+					? EmailOutboxMessage.Status.SENT : EmailOutboxMessage.Status.FAILED;
+			assertEquals(expected, message.getStatus());
+		}
+	}
+
+	// Answers like Resend: 422 when any recipient is invalid, otherwise an id per email
+	private static HttpServer startFakeResend() {
+		try {
+			ObjectMapper mapper = new ObjectMapper();
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/emails/batch", exchange -> {
+				JsonNode batch = mapper.readTree(exchange.getRequestBody());
+				onBatch.run();
+				int code = status;
+				for (JsonNode email : batch) {
+					if (!email.path("to").get(0).asText().contains("@")) {
+						code = 422;
+					}
+				}
+				StringBuilder body = new StringBuilder("{\"data\":[");
+				if (code == 200) {
+					batches.add(batch);
+					for (int i = 0; i < batch.size(); i++) {
+						body.append(i == 0 ? "" : ",").append("{\"id\":\"email-").append(i).append("\"}");
+					}
+				}
+				byte[] bytes = body.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(code, bytes.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(bytes);
+				}
+			});
+			server.start();
+			return server;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.meditrack.backend.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Cost of building one verification email: the string concatenation EmailService used to do
+// (HTML only, unescaped) against EmailTemplates rendering subject, escaped HTML and the text
+// alternate. Run after mvn test-compile with the test classpath, e.g.
+//   java -cp target/test-classes:target/classes:<deps> com.meditrack.backend.Service.EmailTemplateBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+	private EmailTemplates templates;
+	private String link;
+
+	@Setup
+	public void setUp() {
+		templates = new EmailTemplates();
+		link = "https://example.com/verify-email?token=" + "a1b2c3d4".repeat(8);
+	}
+
+	@Benchmark
+	public String concatenation() {
+		String verificationUrl = link;
+		return "<html><body>" +
+				"<h2>Welcome to MediTrack!</h2>" +
+				"<p>Please verify your email address by clicking the button below:</p>" +
+				"<a href=\"" + verificationUrl + "\" style=\"display: inline-block; padding: 10px 20px; background-color: #4F46E5; color: white; text-decoration: none; border-radius: 5px;\">Verify Email</a>" +
+				"<p>Or copy and paste this link into your browser:</p>" +
+				"<p>" + verificationUrl + "</p>" +
+				"<p>This link will expire in 24 hours.</p>" +
+				"<p>If you didn't create an account with MediTrack, please ignore this email.</p>" +
+				"<p>Best regards,<br>MediTrack Team</p>" +
+				"</body></html>";
+	}
+
+	@Benchmark
+	public EmailTemplates.RenderedEmail template() {
+		return templates.render("verification", Locale.ENGLISH, Map.of("link", link));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,51 @@
+package com.meditrack.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.meditrack.backend.util.CompiledTemplate;
+
+class EmailTemplatesTests {
+
+	private final EmailTemplates templates = new EmailTemplates();
+
+	@Test
+	void rendersHtmlEscapedAndTextAsIs() {
+		EmailTemplates.RenderedEmail email = templates.render("password-changed-confirmation", Locale.ENGLISH,
+				Map.of("name", "<script>Tom & \"Jerry\"</script>"));
+
+		assertEquals("MediTrack - Password Changed Successfully", email.getSubject());
+		assertTrue(email.getHtml().contains("<p>Hello &lt;script&gt;Tom &amp; &quot;Jerry&quot;&lt;/script&gt;,</p>"));
+		assertTrue(email.getHtml().contains("<p>Best regards,<br>MediTrack Team</p>\n</body></html>"));
+		assertTrue(email.getText().startsWith("Hello <script>Tom & \"Jerry\"</script>,"));
+		assertFalse(email.getText().contains("<p>"));
+	}
+
+	@Test
+	void picksTheClosestLocaleForTemplatesPartialsAndSubjects() {
+		EmailTemplates.RenderedEmail spanish = templates.render("password-changed-confirmation", Locale.forLanguageTag("es-MX"), Map.of("name", "Ana"));
+		assertEquals("MediTrack - Contraseña cambiada", spanish.getSubject());
+		assertTrue(spanish.getHtml().contains("Hola Ana,"));
+		assertTrue(spanish.getHtml().contains("El equipo de MediTrack"));
+		// no Spanish text alternate, the default one is used
+		assertTrue(spanish.getText().startsWith("Hello Ana,"));
+
+		EmailTemplates.RenderedEmail french = templates.render("verification", Locale.FRENCH, Map.of("link", "https://example.com/v?a=1&b=2"));
+		assertTrue(french.getHtml().contains("href=\"https://example.com/v?a=1&amp;b=2\" style=\"display: inline-block;"));
+		assertTrue(french.getText().contains("https://example.com/v?a=1&b=2"));
+	}
+
+	@Test
+	void rejectsMissingValuesAndBrokenTemplates() {
+		assertThrows(IllegalArgumentException.class, () -> templates.render("verification", Locale.ENGLISH, Map.of()));
+		assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("broken", "Hi {{name", true, p -> null));
+		assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("broken", "{{>missing}}", true, p -> null));
+	}
+}
@@ -0,0 +1,47 @@
+package com.meditrack.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.meditrack.backend.exception.TooManyLoginAttemptsException;
+
+class LoginFailureTrackerTests {
+
+	@Test
+	void blocksAnAccountUntilItsOldestFailureLeavesTheWindow() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		LoginFailureTracker tracker = new LoginFailureTracker(60, 3, 100, 1_000, now::get);
+
+		for (int i = 0; i < 3; i++) {
+			assertDoesNotThrow(() -> tracker.checkAllowed("Ada@Example.com", "10.0.0.1"));
+			tracker.recordFailure("ada@example.com", "10.0.0.1");
+			now.addAndGet(10_000);
+		}
+		TooManyLoginAttemptsException blocked = assertThrows(TooManyLoginAttemptsException.class,
+				() -> tracker.checkAllowed("ada@example.com", "10.0.0.2"));
+		assertEquals(30, blocked.getRetryAfterSeconds());
+
+		now.addAndGet(30_000);
+		assertDoesNotThrow(() -> tracker.checkAllowed("ada@example.com", "10.0.0.2"));
+		tracker.recordSuccess("ada@example.com");
+		now.addAndGet(-30_000);
+		assertDoesNotThrow(() -> tracker.checkAllowed("ada@example.com", "10.0.0.2"));
+	}
+
+	@Test
+	void blocksAnAddressGuessingAcrossAccounts() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		LoginFailureTracker tracker = new LoginFailureTracker(60, 3, 4, 1_000, now::get);
+
+		for (int i = 0; i < 4; i++) {
+			tracker.recordFailure("user" + i + "@example.com", "10.0.0.1");
+		}
+		assertThrows(TooManyLoginAttemptsException.class, () -> tracker.checkAllowed("new@example.com", "10.0.0.1"));
+		assertDoesNotThrow(() -> tracker.checkAllowed("new@example.com", "10.0.0.2"));
+	}
+}
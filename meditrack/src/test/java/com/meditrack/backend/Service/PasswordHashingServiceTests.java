@@ -0,0 +1,73 @@
+package com.meditrack.backend.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.meditrack.backend.exception.PasswordHashingBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTests {
+
+	@Test
+	void rejectsRightAwayOnceTheQueueIsFull() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.encode(rawPassword);
+			}
+		};
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PasswordHashingService service = new PasswordHashingService(blocking, registry, 1, 1, 10_000);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			callers.submit(() -> service.hash("running"));
+			started.await();
+			callers.submit(() -> service.hash("queued"));
+			while (registry.get("password.hash.queue.depth").gauge().value() < 1) {
+				Thread.sleep(5);
+			}
+
+			PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class, () -> service.hash("rejected"));
+			assertTrue(busy.getRetryAfterSeconds() >= 1);
+			assertEquals(1, registry.get("password.hash.rejected").counter().count());
+		} finally {
+			release.countDown();
+			callers.shutdown();
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void flagsHashesBelowTheConfiguredStrength() {
+		PasswordHashingService weak = new PasswordHashingService(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 1, 4, 10_000);
+		PasswordHashingService strong = new PasswordHashingService(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 1, 4, 10_000);
+		try {
+			String old = weak.hash("secret");
+			assertTrue(strong.matches("secret", old));
+			assertTrue(strong.needsUpgrade(old));
+			assertFalse(strong.needsUpgrade(strong.hash("secret")));
+		} finally {
+			weak.shutdown();
+			strong.shutdown();
+		}
+	}
+}
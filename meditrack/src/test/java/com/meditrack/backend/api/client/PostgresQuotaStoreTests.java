@@ -0,0 +1,58 @@
+package com.meditrack.backend.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class PostgresQuotaStoreTests {
+
+	private static EmbeddedPostgres postgres;
+
+	@BeforeAll
+	static void startPostgres() throws Exception {
+		postgres = EmbeddedPostgres.start();
+		try (Connection connection = postgres.getPostgresDatabase().getConnection();
+			 Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE upstream_quota (name VARCHAR(64) PRIMARY KEY, "
+					+ "tokens DOUBLE PRECISION NOT NULL, updated_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+		}
+	}
+
+	@AfterAll
+	static void stopPostgres() throws Exception {
+		postgres.close();
+	}
+
+	@Test
+	void leasesFromTheRowAndGivesUpQuicklyWhileItIsLocked() throws Exception {
+		DataSource dataSource = postgres.getPostgresDatabase();
+		PostgresQuotaStore store = new PostgresQuotaStore(dataSource, "openfda", 5, 1, 200);
+		store.ensureBucket();
+		assertEquals(4, store.lease(4));
+
+		try (Connection holder = dataSource.getConnection()) {
+			holder.setAutoCommit(false);
+			try (Statement statement = holder.createStatement()) {
+				statement.execute("SELECT * FROM upstream_quota WHERE name = 'openfda' FOR UPDATE");
+			}
+			long started = System.nanoTime();
+			assertThrows(SQLException.class, () -> store.lease(1));
+			assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+			holder.rollback();
+		}
+		assertEquals(1, store.lease(1));
+	}
+}
@@ -0,0 +1,43 @@
+package com.meditrack.backend.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class UpstreamCircuitBreakerTests {
+
+	@Test
+	void opensOnFailureRateAndClosesAfterTrialCalls() {
+		// window 4, 50% failures, 1s slow calls, no open delay, 2 trial calls
+		UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(4, 4, 50, 1000, 100, 0, 2);
+		breaker.onSuccess(0);
+		breaker.onFailure();
+		breaker.onSuccess(0);
+		assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.getState());
+		breaker.onFailure();
+		assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.getState());
+
+		// open delay elapsed: two trial calls allowed, a third is rejected until they report
+		assertTrue(breaker.tryAcquire());
+		assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+		assertFalse(breaker.tryAcquire());
+		breaker.onSuccess(0);
+		breaker.onSuccess(0);
+		assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void slowTrialCallReopens() {
+		UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(2, 2, 100, 1000, 100, 0, 1);
+		breaker.onSuccess(2_000_000_000L);
+		breaker.onSuccess(2_000_000_000L);
+		assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.getState());
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onSuccess(2_000_000_000L);
+		assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.getState());
+	}
+}
@@ -0,0 +1,82 @@
+package com.meditrack.backend.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UpstreamQuotaGovernorTests {
+
+	@Test
+	void failsFastOnceTheBucketIsEmptyAndRecoversAsItRefills() {
+		AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(10));
+		UpstreamQuotaGovernor governor = new UpstreamQuotaGovernor(null, true, "openfda", 3, 60, 2, 0, 30_000, now::get);
+
+		for (int i = 0; i < 3; i++) {
+			assertDoesNotThrow(governor::acquire);
+		}
+		UpstreamException exhausted = assertThrows(UpstreamException.class, governor::acquire);
+		assertEquals(UpstreamException.Reason.QUOTA, exhausted.getReason());
+		assertEquals(0, governor.remaining(), 0.001);
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertDoesNotThrow(governor::acquire);
+		assertThrows(UpstreamException.class, governor::acquire);
+	}
+
+	@Test
+	void waitsBrieflyForARefillBeforeGivingUp() {
+		// 10 per second, one permit every 100 ms
+		UpstreamQuotaGovernor governor = new UpstreamQuotaGovernor(null, true, "openfda", 1, 600, 1, 500, 30_000, System::nanoTime);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		governor.bindTo(registry);
+
+		governor.acquire();
+		governor.acquire();
+		assertEquals(2, registry.get("upstream.quota.granted").functionCounter().count());
+		assertEquals(1, registry.get("upstream.quota.waited").functionCounter().count());
+	}
+
+	@Test
+	void staysOnTheLocalBucketForAWhileAfterTheStoreFails() {
+		AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(10));
+		UpstreamQuotaGovernor governor = new UpstreamQuotaGovernor(null, true, "openfda", 100, 6000, 1, 0, 30_000, now::get);
+		AtomicInteger storeCalls = new AtomicInteger();
+		AtomicBoolean storeUp = new AtomicBoolean(false);
+		governor.shareThrough(new QuotaStore() {
+			@Override
+			public long lease(int wanted) throws SQLException {
+				storeCalls.incrementAndGet();
+				if (!storeUp.get()) {
+					throw new SQLException("canceling statement due to lock timeout");
+				}
+				return wanted;
+			}
+
+			@Override
+			public double remaining() {
+				return 0;
+			}
+		});
+
+		for (int i = 0; i < 5; i++) {
+			assertDoesNotThrow(governor::acquire);
+		}
+		assertEquals(1, storeCalls.get());
+
+		storeUp.set(true);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+		assertDoesNotThrow(governor::acquire);
+		assertDoesNotThrow(governor::acquire);
+		assertEquals(3, storeCalls.get());
+	}
+}
@@ -0,0 +1,94 @@
+package com.meditrack.backend.api.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.meditrack.backend.api.dto.DrugResult;
+import com.meditrack.backend.api.service.DrugSearchOutcome;
+import com.meditrack.backend.api.service.DrugSpellingService;
+import com.meditrack.backend.api.service.DrugSuggestService;
+import com.meditrack.backend.api.service.OpenFdaDrugService;
+import com.meditrack.backend.config.HttpCachePolicy;
+
+class DrugSearchControllerTests {
+
+	private MockMvc mockMvc;
+	private OpenFdaDrugService drugService;
+	private DrugResult ibuprofen;
+
+	@BeforeEach
+	void setUp() {
+		DrugSuggestService suggestService = mock(DrugSuggestService.class);
+		when(suggestService.suggest("ibu")).thenReturn(List.of("Ibuprofen", "Ibuprofen and Famotidine"));
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("http.cache.drug-suggest.max-age-seconds", "60")
+				.withProperty("http.cache.drug-suggest.stale-while-revalidate-seconds", "0");
+		ibuprofen = new DrugResult();
+		ibuprofen.setRxcui("5640");
+		ibuprofen.setWarnings("Stomach bleeding warning");
+		drugService = mock(OpenFdaDrugService.class);
+		stubSection(DrugSearchOutcome.Status.FRESH, List.of(ibuprofen));
+		DrugSearchController controller = new DrugSearchController(drugService, suggestService,
+				mock(DrugSpellingService.class), new HttpCachePolicy(environment));
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void repeatRequestWithEtagGetsNotModified() throws Exception {
+		String etag = mockMvc.perform(get("/api/drugs/suggest").param("prefix", "ibu"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "max-age=60, public"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/drugs/suggest").param("prefix", "ibu").header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/drugs/suggest").param("prefix", "ibu").header("If-None-Match", "\"other\""))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void servesOneLabelSectionByRxcui() throws Exception {
+		mockMvc.perform(get("/api/drugs/5640/sections/warnings"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.text").value("Stomach bleeding warning"))
+				.andExpect(header().exists("ETag"));
+
+		// Unknown section name, and a section this label does not have
+		mockMvc.perform(get("/api/drugs/5640/sections/packaging")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/drugs/5640/sections/dosage")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void degradedSectionIsNeverStored() throws Exception {
+		stubSection(DrugSearchOutcome.Status.STALE, List.of(ibuprofen));
+		mockMvc.perform(get("/api/drugs/5640/sections/warnings"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-store"))
+				.andExpect(header().string(DrugSearchController.DEGRADED_HEADER, "stale"));
+
+		stubSection(DrugSearchOutcome.Status.UNAVAILABLE, List.of());
+		mockMvc.perform(get("/api/drugs/5640/sections/warnings"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Cache-Control", "no-store"));
+	}
+
+	private void stubSection(DrugSearchOutcome.Status status, List<DrugResult> results) {
+		DrugSearchOutcome outcome = mock(DrugSearchOutcome.class);
+		when(outcome.getStatus()).thenReturn(status);
+		when(outcome.getResults()).thenReturn(results);
+		when(outcome.isDegraded()).thenReturn(status != DrugSearchOutcome.Status.FRESH);
+		when(drugService.lookupOneByRxcui("5640")).thenReturn(outcome);
+	}
+}
@@ -0,0 +1,72 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.meditrack.backend.Model.UserMedication;
+import com.meditrack.backend.dto.MedicationInteraction;
+import com.meditrack.backend.dto.MedicationInteractionReport;
+
+class DrugInteractionServiceTests {
+
+	private DrugInteractionService service;
+
+	@BeforeEach
+	void setUp() {
+		OpenFdaDrugService drugService = mock(OpenFdaDrugService.class);
+		when(drugService.findLocallyByRxcui(anyString())).thenReturn(Optional.empty());
+		service = new DrugInteractionService(drugService, "", 100, 60);
+		service.load(); // bundled starter dataset
+	}
+
+	@Test
+	void findsInteractionsAndDuplicateIngredients() {
+		List<UserMedication> medications = List.of(
+				medication("Advil", "5640"),
+				medication("Warfarin Sodium", null),
+				medication("Tylenol Extra Strength", null),
+				medication("Acetaminophen, Aspirin and Caffeine", null),
+				medication("Acetaminophen 500mg", null));
+
+		MedicationInteractionReport report = service.check(medications);
+
+		List<String> interactions = report.getInteractions().stream()
+				.map(MedicationInteraction::getSeverity)
+				.toList();
+		// ibuprofen+warfarin, aspirin+warfarin, aspirin+ibuprofen, then acetaminophen+warfarin twice
+		assertEquals(List.of("major", "major", "moderate", "minor", "minor"), interactions);
+		assertEquals(1, report.getDuplicates().size());
+		assertEquals("acetaminophen", report.getDuplicates().get(0).getIngredient());
+		assertEquals("Acetaminophen, Aspirin and Caffeine", report.getDuplicates().get(0).getDrugName());
+	}
+
+	@Test
+	void recomputesOnlyAfterInvalidate() {
+		List<UserMedication> medications = List.of(medication("Ibuprofen", null), medication("Naproxen", null));
+
+		MedicationInteractionReport first = service.reportFor(1L, () -> medications);
+		assertSame(first, service.reportFor(1L, () -> List.of()));
+
+		service.invalidate(1L);
+		MedicationInteractionReport second = service.reportFor(1L, () -> List.of());
+		assertNotSame(first, second);
+		assertEquals(0, second.getInteractions().size());
+	}
+
+	private static UserMedication medication(String drugName, String rxcui) {
+		UserMedication medication = new UserMedication();
+		medication.setDrugName(drugName);
+		medication.setRxcui(rxcui);
+		return medication;
+	}
+}
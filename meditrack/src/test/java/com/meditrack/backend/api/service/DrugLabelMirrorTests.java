@@ -0,0 +1,56 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.api.dto.DrugResult;
+
+class DrugLabelMirrorTests {
+
+	private static final String DUMP = "{\"meta\":{\"results\":{\"total\":4}},\"results\":["
+			+ "{\"openfda\":{\"brand_name\":[\"Advil\"],\"generic_name\":[\"IBUPROFEN\"],\"rxcui\":[\"5640\"]},\"purpose\":[\"Pain reliever\"]},"
+			+ "{\"openfda\":{\"brand_name\":[\"Childrens Advil Cold\"],\"generic_name\":[\"IBUPROFEN AND PSEUDOEPHEDRINE\"]}},"
+			+ "{\"openfda\":{\"generic_name\":[\"WARFARIN SODIUM\"],\"rxcui\":[\"11289\"]}},"
+			+ "{\"purpose\":[\"No names, never searchable\"]}]}";
+
+	@Test
+	void ingestsTheDumpAndSearchesItByNameTokens(@TempDir Path dir) throws Exception {
+		Path dump = Files.writeString(dir.resolve("drug-label-0001-of-0001.json"), DUMP);
+		List<Object> events = new ArrayList<>();
+		DrugLabelMirror mirror = new DrugLabelMirror(new ObjectMapper(), events::add, dump.toString(), dir.resolve("mirror.dat").toString());
+
+		mirror.reload();
+
+		assertTrue(mirror.isLoaded());
+		assertEquals(1, events.size());
+		assertEquals(3, ((DrugLabelMirrorLoadedEvent) events.get(0)).getLabelCount());
+		// exact name first, then the longer label that also carries every token
+		List<DrugResult> ibuprofen = mirror.search("ibuprofen", 5);
+		assertEquals(List.of("Advil", "Childrens Advil Cold"), ibuprofen.stream().map(DrugResult::getBrandName).toList());
+		assertEquals("Pain reliever", ibuprofen.get(0).getPurpose());
+		assertEquals(1, mirror.search("advil cold", 5).size());
+		assertTrue(mirror.search("ibuprofen codeine", 5).isEmpty());
+		assertEquals("WARFARIN SODIUM", mirror.findByRxcui("11289").orElseThrow().getGenericName());
+	}
+
+	@Test
+	void reopensTheStoreWithoutTheDump(@TempDir Path dir) throws Exception {
+		Path dump = Files.writeString(dir.resolve("labels.json"), DUMP);
+		Path store = dir.resolve("mirror.dat");
+		new DrugLabelMirror(new ObjectMapper(), event -> { }, dump.toString(), store.toString()).reload();
+
+		DrugLabelMirror restarted = new DrugLabelMirror(new ObjectMapper(), event -> { }, "", store.toString());
+		restarted.reload();
+
+		assertEquals("Advil", restarted.search("advil", 1).get(0).getBrandName());
+	}
+}
@@ -0,0 +1,36 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DrugNameFuzzyIndexTests {
+
+	@Test
+	void correctsTyposWithinTwoEdits() {
+		DrugNameFuzzyIndex index = new DrugNameFuzzyIndex();
+		index.add("ibuprofen", "Ibuprofen", 10);
+		index.add("amoxicillin", "Amoxicillin", 5);
+		index.add("amoxicillin and clavulanate potassium", "Amoxicillin and Clavulanate Potassium", 50);
+		index.add("atorvastatin", "Atorvastatin", 1);
+
+		assertEquals(List.of("Ibuprofen"), index.corrections("ibuprophen", 5));
+		assertEquals(List.of("Amoxicillin"), index.corrections("amoxicilin", 5));
+		assertTrue(index.corrections("ibuprofen", 5).isEmpty());
+		assertTrue(index.corrections("metformin", 5).isEmpty());
+	}
+
+	@Test
+	void ranksCloserThenMorePopularNames() {
+		DrugNameFuzzyIndex index = new DrugNameFuzzyIndex();
+		index.add("advil", "Advil", 1);
+		index.add("advils", "Advils", 1000);
+		index.add("adviq", "Adviq", 1);
+
+		assertEquals(List.of("Advils", "Advil", "Adviq"), index.corrections("advilz", 5));
+		assertEquals(3, DrugNameFuzzyIndex.distance("kitten", "sitting", 2));
+	}
+}
@@ -0,0 +1,51 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.meditrack.backend.api.dto.DrugResult;
+
+class DrugSearchCacheTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void l2EntriesSurviveRestart() {
+		String file = dir.resolve("drug-search-cache.dat").toString();
+		DrugSearchCache cache = new DrugSearchCache(10, 60, 10, true, file, 1);
+		DrugResult result = new DrugResult();
+		result.setBrandName("Advil");
+		result.setGenericName("ibuprofen");
+		cache.put("ibuprofen", List.of(result));
+		cache.put("unknowndrug", List.of());
+		cache.close();
+
+		DrugSearchCache reopened = new DrugSearchCache(10, 60, 10, true, file, 1);
+		assertEquals("Advil", reopened.get("ibuprofen").orElseThrow().get(0).getBrandName());
+		assertTrue(reopened.get("unknowndrug").orElseThrow().isEmpty());
+		assertTrue(reopened.get("aspirin").isEmpty());
+	}
+
+	@Test
+	void refusesAnL2SizeThatDoesNotFitOneMapping() {
+		String file = dir.resolve("drug-search-cache.dat").toString();
+		assertThrows(IllegalArgumentException.class, () -> new DrugSearchCache(10, 60, 10, true, file, 2048));
+		assertThrows(IllegalArgumentException.class, () -> new DrugSearchCache(10, 60, 10, true, file, 0));
+		// Ignored while L2 is off
+		new DrugSearchCache(10, 60, 10, false, file, 4096).close();
+	}
+
+	@Test
+	void normalizesCaseWhitespaceAndEncoding() {
+		assertEquals("ibuprofen 200", DrugQueryNormalizer.normalize("  IBUPROFEN%20  200 "));
+		assertEquals("advil", DrugQueryNormalizer.normalize("Advil"));
+	}
+}
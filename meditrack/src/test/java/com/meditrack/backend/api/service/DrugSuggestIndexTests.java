@@ -0,0 +1,51 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DrugSuggestIndexTests {
+
+	@Test
+	void suggestsMostPopularCompletionsOfAPrefix(@TempDir Path dir) throws Exception {
+		Map<String, DrugSuggestIndex.Entry> entries = new HashMap<>();
+		entries.put("ibuprofen", new DrugSuggestIndex.Entry("Ibuprofen", 300));
+		entries.put("ibuprofen and famotidine", new DrugSuggestIndex.Entry("Ibuprofen and Famotidine", 2));
+		entries.put("ibandronate", new DrugSuggestIndex.Entry("Ibandronate", 5));
+		entries.put("warfarin", new DrugSuggestIndex.Entry("Warfarin", 100));
+		Path path = dir.resolve("suggest.idx");
+
+		DrugSuggestIndex.write(entries, path);
+		DrugSuggestIndex index = DrugSuggestIndex.open(path);
+
+		assertEquals(List.of("Ibuprofen", "Ibandronate", "Ibuprofen and Famotidine"), index.suggest("ib", 10));
+		assertEquals(List.of("Ibuprofen", "Ibuprofen and Famotidine"), index.suggest("ibup", 10));
+		assertEquals(List.of("Ibuprofen"), index.suggest("i", 1));
+		assertEquals(List.of("Warfarin"), index.suggest("warfarin", 10));
+		assertTrue(index.suggest("warfarins", 10).isEmpty());
+		assertTrue(index.suggest("x", 10).isEmpty());
+	}
+
+	@Test
+	void keepsOnlyTheTopSuggestionsPerNode(@TempDir Path dir) throws Exception {
+		Map<String, DrugSuggestIndex.Entry> entries = new HashMap<>();
+		for (int i = 0; i < 25; i++) {
+			entries.put("drug " + (char) ('a' + i), new DrugSuggestIndex.Entry("Drug " + (char) ('A' + i), i));
+		}
+		Path path = dir.resolve("suggest.idx");
+
+		DrugSuggestIndex.write(entries, path);
+		List<String> top = DrugSuggestIndex.open(path).suggest("drug", 50);
+
+		assertEquals(DrugSuggestIndex.MAX_SUGGESTIONS, top.size());
+		assertEquals("Drug Y", top.get(0));
+		assertEquals("Drug P", top.get(DrugSuggestIndex.MAX_SUGGESTIONS - 1));
+	}
+}
@@ -0,0 +1,90 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.meditrack.backend.api.client.UpstreamCircuitBreaker;
+import com.meditrack.backend.api.client.UpstreamException;
+import com.meditrack.backend.api.client.UpstreamHttpClient;
+import com.meditrack.backend.api.client.UpstreamQuotaGovernor;
+import com.meditrack.backend.api.dto.DrugResult;
+
+class OpenFdaDrugServiceTests {
+
+	@Test
+	void quotesAndBracesInANameStayInsideThePhrase() {
+		String search = OpenFdaDrugService.nameSearch("foo{bar} \"x\"+generic_name:\\");
+
+		assertEquals("generic_name:\"foo{bar} \\\"x\\\"+generic_name:\\\\\"+brand_name:\"foo{bar} \\\"x\\\"+generic_name:\\\\\"", search);
+
+		URI uri = OpenFdaDrugService.searchUri("https://api.fda.gov", search, 5);
+		assertEquals("api.fda.gov", uri.getHost());
+		assertEquals("/drug/label", uri.getPath());
+		String query = uri.getRawQuery();
+		assertEquals(search, URLDecoder.decode(query.substring("search=".length(), query.indexOf("&limit=")).replace("+", "%2B"), StandardCharsets.UTF_8));
+		assertEquals("5", query.substring(query.indexOf("&limit=") + "&limit=".length()));
+	}
+
+	@Test
+	void onlyUpstreamFaultsCountAgainstTheCircuit() {
+		UpstreamHttpClient http = mock(UpstreamHttpClient.class);
+		// window 4, 50% failures, open for a minute once tripped
+		UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(4, 4, 50, 1000, 100, 60_000, 2);
+		OpenFdaDrugService service = new OpenFdaDrugService(http, mock(DrugSearchCache.class), new RequestCoalescer(1000),
+				mock(DrugLabelMirror.class), breaker, mock(UpstreamQuotaGovernor.class), mock(DrugSpellingService.class),
+				"https://api.fda.gov", 1, 1000, 10);
+		try {
+			// upstream refusing the request as invalid, then a body we cannot parse
+			doThrow(new UpstreamException(UpstreamException.Reason.HTTP_STATUS, 400, "Bad request", null)).when(http).get(any());
+			for (int i = 0; i < 6; i++) {
+				assertEquals(List.<DrugResult>of(), service.searchDrug("foo{bar} " + i));
+			}
+			doReturn("not json".getBytes(StandardCharsets.UTF_8)).when(http).get(any());
+			for (int i = 0; i < 6; i++) {
+				service.searchDrug("garbled " + i);
+			}
+			assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.getState());
+
+			doThrow(new UpstreamException(UpstreamException.Reason.HTTP_STATUS, 503, "Unavailable", null)).when(http).get(any());
+			for (int i = 0; i < 4; i++) {
+				service.searchDrug("down " + i);
+			}
+			assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.getState());
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void sendsAtMostTheUpstreamCapOfOneBatch() throws Exception {
+		UpstreamHttpClient http = mock(UpstreamHttpClient.class);
+		doReturn("{\"results\":[]}".getBytes(StandardCharsets.UTF_8)).when(http).get(any());
+		OpenFdaDrugService service = new OpenFdaDrugService(http, mock(DrugSearchCache.class), new RequestCoalescer(1000),
+				mock(DrugLabelMirror.class), new UpstreamCircuitBreaker(4, 4, 50, 1000, 100, 60_000, 2),
+				mock(UpstreamQuotaGovernor.class), mock(DrugSpellingService.class), "https://api.fda.gov", 4, 1000, 3);
+		try {
+			List<String> rxcuis = new ArrayList<>();
+			for (int i = 1; i <= 100; i++) {
+				rxcuis.add(Integer.toString(1000 + i));
+			}
+			assertTrue(service.lookupByRxcui(rxcuis).isEmpty());
+			verify(http, times(3)).get(any());
+		} finally {
+			service.shutdown();
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.meditrack.backend.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.api.dto.DrugResult;
+import com.meditrack.backend.api.dto.OpenFdaLabelResponse;
+
+class OpenFdaLabelParserTests {
+
+	@Test
+	void matchesDatabindMapping() throws Exception {
+		byte[] body = OpenFdaLabelParsingBenchmark.labelResponse(3, 4);
+		ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		List<DrugResult> expected = objectMapper.readValue(body, OpenFdaLabelResponse.class)
+				.getResults().stream().map(OpenFdaDrugService::mapToDto).toList();
+
+		List<DrugResult> actual = OpenFdaLabelParser.parseResponse(body);
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(DrugResultCodec.encode(List.of(expected.get(i))), DrugResultCodec.encode(List.of(actual.get(i))));
+		}
+		assertEquals("GENERIC 1", actual.get(1).getGenericName());
+		assertEquals("1001", actual.get(1).getRxcui());
+	}
+
+	@Test
+	void toleratesMissingAndEmptySections() throws Exception {
+		String json = "{\"results\":[{\"warnings\":[],\"purpose\":[\"Pain reliever\"]},"
+				+ "{\"openfda\":{\"brand_name\":[\"Advil\"],\"route\":[]}}]}";
+
+		List<DrugResult> results = OpenFdaLabelParser.parseResponse(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(2, results.size());
+		assertEquals("Pain reliever", results.get(0).getPurpose());
+		assertNull(results.get(0).getWarnings());
+		assertNull(results.get(0).getBrandName());
+		assertEquals("Advil", results.get(1).getBrandName());
+		assertNull(results.get(1).getRoute());
+		assertTrue(OpenFdaLabelParser.parseResponse("{\"meta\":{}}".getBytes(StandardCharsets.UTF_8)).isEmpty());
+	}
+}
@@ -0,0 +1,107 @@
+package com.meditrack.backend.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.backend.api.dto.DrugResult;
+import com.meditrack.backend.api.dto.OpenFdaLabelResponse;
+
+// Databind + mapToDto versus OpenFdaLabelParser on a search-sized response (5 labels).
+// Run after mvn test-compile with the test classpath, e.g.
+//   java -cp target/test-classes:target/classes:<deps> com.meditrack.backend.api.service.OpenFdaLabelParsingBenchmark
+// Add -prof gc to the options to compare allocation per operation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenFdaLabelParsingBenchmark {
+
+	// Paragraphs per label section, real labels run from a few to a few dozen
+	@Param({ "4", "32" })
+	int paragraphs;
+
+	private byte[] body;
+	private ObjectMapper objectMapper;
+
+	@Setup
+	public void setUp() {
+		body = labelResponse(5, paragraphs);
+		// Same unknown-field handling as the Spring Boot ObjectMapper
+		objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	}
+
+	@Benchmark
+	public List<DrugResult> databind() throws Exception {
+		OpenFdaLabelResponse response = objectMapper.readValue(body, OpenFdaLabelResponse.class);
+		return response.getResults().stream().map(OpenFdaDrugService::mapToDto).toList();
+	}
+
+	@Benchmark
+	public List<DrugResult> streaming() throws Exception {
+		return OpenFdaLabelParser.parseResponse(body);
+	}
+
+	// OpenFDA shaped /drug/label response, including the sections and openfda fields we never read
+	static byte[] labelResponse(int labels, int paragraphs) {
+		StringBuilder json = new StringBuilder("{\"meta\":{\"disclaimer\":\"Do not rely on openFDA\",")
+				.append("\"results\":{\"skip\":0,\"limit\":").append(labels).append(",\"total\":").append(labels).append("}},")
+				.append("\"results\":[");
+		String[] sections = { "purpose", "indications_and_usage", "warnings", "adverse_reactions",
+				"dosage_and_administration", "description", "clinical_pharmacology", "contraindications",
+				"precautions", "overdosage", "how_supplied", "package_label_principal_display_panel",
+				"spl_product_data_elements", "drug_interactions" };
+		for (int l = 0; l < labels; l++) {
+			if (l > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":\"label-").append(l).append("\",\"effective_time\":\"20240101\",\"version\":\"3\"");
+			for (String section : sections) {
+				json.append(",\"").append(section).append("\":[");
+				for (int p = 0; p < paragraphs; p++) {
+					if (p > 0) {
+						json.append(',');
+					}
+					json.append('"').append(section).append(' ').append(l).append('.').append(p)
+							.append(": Take with food. Do not exceed the recommended dose. \\\"Consult\\\" a doctor if ")
+							.append("symptoms persist for more than 7 days or get worse.")
+							.append('"');
+				}
+				json.append(']');
+			}
+			json.append(",\"openfda\":{")
+					.append("\"brand_name\":[\"Brand ").append(l).append("\"],")
+					.append("\"generic_name\":[\"GENERIC ").append(l).append("\",\"OTHER\"],")
+					.append("\"manufacturer_name\":[\"Acme Pharma\"],")
+					.append("\"product_ndc\":[\"0000-").append(l).append("\",\"1111-").append(l).append("\"],")
+					.append("\"route\":[\"ORAL\"],")
+					.append("\"rxcui\":[\"").append(1000 + l).append("\",\"").append(2000 + l).append("\"],")
+					.append("\"spl_id\":[\"abc\"],\"is_original_packager\":[true]}}");
+		}
+		json.append("]}");
+		return json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OpenFdaLabelParsingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
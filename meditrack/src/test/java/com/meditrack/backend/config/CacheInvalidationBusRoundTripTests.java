@@ -0,0 +1,116 @@
+package com.meditrack.backend.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.meditrack.backend.Model.User;
+import com.meditrack.backend.api.service.DrugInteractionService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+
+// Two instances on one embedded Postgres server: what one commits, the other evicts
+class CacheInvalidationBusRoundTripTests {
+
+	private static final String CHANNEL = "meditrack_cache_invalidation_test";
+
+	private static EmbeddedPostgres postgres;
+
+	private final Cache publisherCache = mock(Cache.class);
+	private final Cache listenerCache = mock(Cache.class);
+	private CacheInvalidationBus publisher;
+	private CacheInvalidationBus listener;
+	private TransactionTemplate transaction;
+
+	@BeforeAll
+	static void startPostgres() throws Exception {
+		postgres = EmbeddedPostgres.start();
+	}
+
+	@AfterAll
+	static void stopPostgres() throws Exception {
+		postgres.close();
+	}
+
+	@BeforeEach
+	void setUp() {
+		publisher = bus(publisherCache);
+		listener = bus(listenerCache);
+		publisher.start();
+		listener.start();
+		transaction = new TransactionTemplate(new DataSourceTransactionManager(postgres.getPostgresDatabase()));
+		// LISTEN has run once the listener answers a notification, published outside a transaction
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (true) {
+			publisher.userChanged(1L);
+			try {
+				verify(listenerCache, timeout(200).atLeastOnce()).evictEntityData(User.class, 1L);
+				return;
+			} catch (AssertionError e) {
+				if (System.nanoTime() > deadline) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		publisher.stop();
+		listener.stop();
+	}
+
+	@Test
+	void evictsAfterCommitAndNothingAfterRollback() {
+		transaction.executeWithoutResult(status -> {
+			publisher.userChanged(7L);
+			status.setRollbackOnly();
+		});
+		transaction.executeWithoutResult(status -> publisher.userChanged(8L));
+
+		// Notifications arrive in order, so once 8 is evicted 7 was never sent
+		verify(listenerCache, timeout(10_000)).evictEntityData(User.class, 8L);
+		verify(listenerCache, never()).evictEntityData(User.class, 7L);
+		// Nor does an instance act on its own notifications
+		verify(publisherCache, never()).evictEntityData(User.class, 8L);
+	}
+
+	@Test
+	void evictsEverythingAfterReconnecting() throws Exception {
+		try (Connection connection = postgres.getPostgresDatabase().getConnection();
+			 Statement statement = connection.createStatement()) {
+			statement.execute("select pg_terminate_backend(pid) from pg_stat_activity where query like 'LISTEN%'");
+		}
+
+		// Notifications sent while disconnected are lost, so all regions go
+		verify(listenerCache, timeout(10_000)).evictAllRegions();
+		publisher.userChanged(9L);
+		verify(listenerCache, timeout(10_000)).evictEntityData(User.class, 9L);
+	}
+
+	private static CacheInvalidationBus bus(Cache cache) {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		when(sessionFactory.getCache()).thenReturn(cache);
+		EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+		when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+		return new CacheInvalidationBus(postgres.getPostgresDatabase(), entityManagerFactory,
+				mock(DrugInteractionService.class), true, CHANNEL, 100);
+	}
+}
@@ -0,0 +1,59 @@
+package com.meditrack.backend.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import javax.sql.DataSource;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.meditrack.backend.Model.User;
+import com.meditrack.backend.Model.UserMedication;
+import com.meditrack.backend.api.service.DrugInteractionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Receiving side only, see CacheInvalidationBusRoundTripTests for NOTIFY through a real server
+class CacheInvalidationBusTests {
+
+	private final Cache cache = mock(Cache.class);
+	private final DrugInteractionService drugInteractionService = mock(DrugInteractionService.class);
+	private CacheInvalidationBus bus;
+
+	@BeforeEach
+	void setUp() {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		when(sessionFactory.getCache()).thenReturn(cache);
+		EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+		when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+		bus = new CacheInvalidationBus(mock(DataSource.class), entityManagerFactory, drugInteractionService,
+				true, "meditrack_cache_invalidation", 1000);
+	}
+
+	@Test
+	void evictsWhatAnotherInstanceChanged() {
+		bus.handle(CacheInvalidationBus.encode("other-node", CacheInvalidationBus.Kind.MEDICATION, 7L, 42L));
+		verify(cache).evictEntityData(UserMedication.class, 42L);
+		verify(cache).evictQueryRegion(EntityCacheConfig.MEDICATIONS_BY_USER);
+		verify(drugInteractionService).invalidate(7L);
+
+		bus.handle(CacheInvalidationBus.encode("other-node", CacheInvalidationBus.Kind.USER, 7L, null));
+		verify(cache).evictEntityData(User.class, 7L);
+		verify(cache).evictQueryRegion(EntityCacheConfig.USER_BY_EMAIL);
+	}
+
+	@Test
+	void ignoresMalformedPayloads() {
+		bus.handle("garbage");
+		bus.handle("other-node|SOMETHING|7|");
+		bus.handle("other-node|USER|not-a-number|");
+		verify(cache, never()).evictEntityData(User.class, 7L);
+		verifyNoInteractions(drugInteractionService);
+	}
+}
@@ -0,0 +1,51 @@
+package com.meditrack.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.meditrack.backend.util.JwtUtil;
+
+class JwtFilterTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil("test-secret-test-secret-test-secret-0123456789", 60_000, 100, 300);
+	private final JwtFilter filter = new JwtFilter(jwtUtil);
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void principalCarriesUserIdFromToken() throws Exception {
+		String token = jwtUtil.createToken(Map.of("userId", 7L), "ada@example.com");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user-medications/me");
+		request.addHeader("Authorization", "Bearer " + token);
+
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		AuthenticatedUser principal = (AuthenticatedUser) auth.getPrincipal();
+		assertEquals(7L, principal.getUserId());
+		assertEquals("ada@example.com", auth.getName());
+	}
+
+	@Test
+	void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user-medications/me");
+		request.addHeader("Authorization", "Bearer not-a-token");
+
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+	}
+}
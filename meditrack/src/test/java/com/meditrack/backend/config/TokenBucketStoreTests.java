@@ -0,0 +1,76 @@
+package com.meditrack.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketStoreTests {
+
+	@Test
+	void allowsTheBurstThenRefillsOnePermitPerInterval() {
+		TokenBucketStore store = new TokenBucketStore(64);
+		RateLimitPolicy policy = RateLimitPolicy.parse("/auth/=ip:10/60");
+		long now = TimeUnit.SECONDS.toNanos(100);
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, store.tryAcquire(42, policy.getIntervalNanos(), policy.getBurstNanos(), now));
+		}
+		long wait = store.tryAcquire(42, policy.getIntervalNanos(), policy.getBurstNanos(), now);
+		assertEquals(TimeUnit.SECONDS.toNanos(6), wait);
+		assertEquals(0, store.tryAcquire(7, policy.getIntervalNanos(), policy.getBurstNanos(), now));
+
+		now += TimeUnit.SECONDS.toNanos(6);
+		assertEquals(0, store.tryAcquire(42, policy.getIntervalNanos(), policy.getBurstNanos(), now));
+		assertTrue(store.tryAcquire(42, policy.getIntervalNanos(), policy.getBurstNanos(), now) > 0);
+	}
+
+	@Test
+	void staysWithinItsSlotsWhateverTheNumberOfKeys() {
+		TokenBucketStore store = new TokenBucketStore(64);
+		RateLimitPolicy policy = RateLimitPolicy.parse("/api/drugs=principal:1/60");
+		long now = TimeUnit.SECONDS.toNanos(100);
+
+		for (long key = 1; key <= 10_000; key++) {
+			assertEquals(0, store.tryAcquire(key, policy.getIntervalNanos(), policy.getBurstNanos(), now));
+		}
+		assertEquals(64, store.capacity());
+		assertEquals(64 * 3 * Long.BYTES, store.footprintBytes());
+		assertTrue(store.evictions() >= 10_000 - 64);
+		assertThrows(IllegalArgumentException.class, () -> RateLimitPolicy.parse("/auth/=everyone:10/60"));
+	}
+
+	@Test
+	void concurrentClaimsNeverPutOneKeyInTwoSlots() throws Exception {
+		TokenBucketStore store = new TokenBucketStore(16);
+		RateLimitPolicy policy = RateLimitPolicy.parse("/api/drugs=principal:1000/60");
+		long now = TimeUnit.SECONDS.toNanos(100);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				workers.add(pool.submit(() -> {
+					for (int i = 0; i < 20_000; i++) {
+						store.tryAcquire(1 + i % 40, policy.getIntervalNanos(), policy.getBurstNanos(), now);
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		for (long key = 1; key <= 40; key++) {
+			assertTrue(store.slotsHolding(key) <= 1, "key " + key);
+		}
+	}
+}
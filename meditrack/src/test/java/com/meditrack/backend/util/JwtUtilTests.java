@@ -0,0 +1,46 @@
+package com.meditrack.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class JwtUtilTests {
+
+	static final String SECRET = "test-secret-test-secret-test-secret-0123456789";
+
+	@Test
+	void verifiesOnceAndServesRepeatsFromCache() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, 300);
+		String token = jwtUtil.createToken(Map.of("userId", 42L), "ada@example.com");
+
+		VerifiedJwt first = jwtUtil.verify(token).orElseThrow();
+		assertEquals("ada@example.com", first.getEmail());
+		assertEquals(42L, first.getUserId());
+		assertSame(first, jwtUtil.verify(token).orElseThrow());
+
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+		assertFalse(jwtUtil.verify(tampered).isPresent());
+		JwtUtil otherKey = new JwtUtil(SECRET.replace('0', '1'), 60_000, 100, 300);
+		assertFalse(otherKey.verify(token).isPresent());
+	}
+
+	@Test
+	void cachedTokenIsRejectedOnceExpired() {
+		AtomicLong now = new AtomicLong(1_700_000_000_000L);
+		JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100, 300, now::get);
+		String token = jwtUtil.createToken(Map.of(), "ada@example.com");
+		assertTrue(jwtUtil.verify(token).isPresent());
+
+		now.addAndGet(59_000);
+		assertTrue(jwtUtil.verify(token).isPresent());
+		now.addAndGet(2_000);
+		assertFalse(jwtUtil.verify(token).isPresent());
+		assertFalse(jwtUtil.isTokenValid(token));
+	}
+}
@@ -0,0 +1,75 @@
+package com.meditrack.backend.util;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Per-request cost of authenticating a bearer token: the old JwtFilter path (a new key and
+// parser for extractEmail, then again for isTokenValid), one parse with the prebuilt parser, and
+// JwtUtil.verify for a token seen before. Run after mvn test-compile with the test classpath, e.g.
+//   java -cp target/test-classes:target/classes:<deps> com.meditrack.backend.util.JwtVerificationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+	private JwtUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = new JwtUtil(JwtUtilTests.SECRET, 3_600_000, 10_000, 300);
+		token = jwtUtil.createToken(Map.of("userId", 42L), "ada@example.com");
+	}
+
+	@Benchmark
+	public boolean twoParses() {
+		String email = Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody().getSubject();
+		try {
+			Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+			return email != null;
+		} catch (JwtException | IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	@Benchmark
+	public VerifiedJwt singleParse() {
+		return jwtUtil.parse(token);
+	}
+
+	@Benchmark
+	public Optional<VerifiedJwt> cachedVerify() {
+		return jwtUtil.verify(token);
+	}
+
+	private static Key key() {
+		return Keys.hmacShaKeyFor(JwtUtilTests.SECRET.getBytes());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+	}
+}